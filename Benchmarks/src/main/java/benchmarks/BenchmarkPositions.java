@@ -0,0 +1,52 @@
+package benchmarks;
+
+import java.util.*;
+
+import elements.Board;
+import elements.FenUtilities;
+
+public final class BenchmarkPositions //Representative positions shared by the benchmarks, selected by name through a JMH @Param
+{
+	private BenchmarkPositions() //Stops people from trying to instantiate this class
+	{
+		throw new RuntimeException("Cannot instantiate this class");
+	}
+
+	private static final Map<String,String> POSITIONS=createPositions();
+
+	private static Map<String,String> createPositions()
+	{
+		final Map<String,String> positions=new LinkedHashMap<>();
+		positions.put("start","rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+		positions.put("opening","r1bqkb1r/pppp1ppp/2n2n2/4p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 4 4");
+		positions.put("middlegame","r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+		positions.put("endgame","8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1");
+		positions.put("enpassant","rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3");
+		positions.put("promotion","4k3/P7/8/8/8/8/3n4/4K3 w - - 0 1");
+		return Collections.unmodifiableMap(positions);
+	}
+
+	public static Board create(final String name)
+	{
+		final String fen=POSITIONS.get(name);
+		if (fen==null)
+			throw new RuntimeException("Unknown benchmark position: "+name);
+		return FenUtilities.createGameFromFEN(fen);
+	}
+
+	public static Collection<Board> createAll()
+	{
+		final List<Board> boards=new ArrayList<>();
+		for (final String name:POSITIONS.keySet())
+			boards.add(create(name));
+		return boards;
+	}
+
+	public static Board copyOf(final Board board) //A fresh Board of the same position, with none of the original's memoized moves or check status
+	{
+		final Board.Builder builder=new Board.Builder(board);
+		builder.setMoveMaker(board.currentPlayer().getAlliance());
+		builder.setEnPassantPawn(board.getEnPassantPawn());
+		return builder.build();
+	}
+}
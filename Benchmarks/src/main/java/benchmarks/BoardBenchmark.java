@@ -0,0 +1,61 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import elements.Board;
+import elements.Piece;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=3,time=1)
+@Measurement(iterations=5,time=1)
+@Fork(1)
+@State(Scope.Thread)
+public class BoardBenchmark //Cost of building Boards, the allocation every Move.execute pays
+{
+	@Param({"start","middlegame","endgame"})
+	public String position;
+
+	private Board board;
+
+	@Setup
+	public void setUp()
+	{
+		this.board=BenchmarkPositions.create(this.position);
+	}
+
+	@Benchmark
+	public Board createStandardBoard()
+	{
+		return Board.createStandardBoard();
+	}
+
+	@Benchmark
+	public Board buildFromPieces() //An empty Builder filled one piece at a time
+	{
+		final Board.Builder builder=new Board.Builder();
+		for (final Piece piece:this.board.getWhitePieces())
+			builder.setPiece(piece);
+		for (final Piece piece:this.board.getBlackPieces())
+			builder.setPiece(piece);
+		builder.setMoveMaker(this.board.currentPlayer().getAlliance());
+		return builder.build();
+	}
+
+	@Benchmark
+	public Board buildFromBoard() //Builder(Board) copying the position in one go, as Move.execute does
+	{
+		return BenchmarkPositions.copyOf(this.board);
+	}
+
+	@Benchmark
+	public void legalMovesOnFreshBoard(final Blackhole blackhole) //Both players' moves on a board that has not memoized them yet
+	{
+		final Board freshBoard=BenchmarkPositions.copyOf(this.board);
+		blackhole.consume(freshBoard.currentPlayer().getLegalMoves());
+		blackhole.consume(freshBoard.currentPlayer().getOpponent().getLegalMoves());
+	}
+}
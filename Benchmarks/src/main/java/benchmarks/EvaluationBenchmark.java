@@ -0,0 +1,42 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import elements.Board;
+import engine.BoardEvaluator;
+import engine.StandardBoardEvaluator;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=3,time=1)
+@Measurement(iterations=5,time=1)
+@Fork(1)
+@State(Scope.Thread)
+public class EvaluationBenchmark //StandardBoardEvaluator.evaluate, which needs both players' moves and check status
+{
+	@Param({"start","opening","middlegame","endgame"})
+	public String position;
+
+	private final BoardEvaluator evaluator=new StandardBoardEvaluator();
+	private Board board;
+
+	@Setup
+	public void setUp()
+	{
+		this.board=BenchmarkPositions.create(this.position);
+	}
+
+	@Benchmark
+	public int evaluateMemoized() //Same Board every time, so moves and check status come from the Board's caches
+	{
+		return this.evaluator.evaluate(this.board,0);
+	}
+
+	@Benchmark
+	public int evaluateFreshBoard() //Includes copying the board (see BoardBenchmark.buildFromBoard), which is what search pays per leaf
+	{
+		return this.evaluator.evaluate(BenchmarkPositions.copyOf(this.board),0);
+	}
+}
@@ -0,0 +1,43 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import elements.Board;
+import elements.Move;
+import engine.MiniMax;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=2,time=2)
+@Measurement(iterations=5,time=2)
+@Fork(1)
+@State(Scope.Thread)
+public class MiniMaxBenchmark //Whole searches at fixed depths, sequential and with parallel root splitting
+{
+	@Param({"start","middlegame","endgame"})
+	public String position;
+
+	@Param({"2","3"})
+	public int depth;
+
+	@Param({"0","1","2"})
+	public int splitPlies; //0 is the sequential search, 1 and up split plies over the common fork-join pool
+
+	private Board board;
+	private MiniMax miniMax;
+
+	@Setup
+	public void setUp()
+	{
+		this.board=BenchmarkPositions.create(this.position);
+		this.miniMax=new MiniMax(this.depth,this.splitPlies);
+	}
+
+	@Benchmark
+	public Move execute() //On a fresh copy, so the root's memoized moves don't carry over between invocations
+	{
+		return this.miniMax.execute(BenchmarkPositions.copyOf(this.board));
+	}
+}
@@ -0,0 +1,83 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import elements.Board;
+import elements.Move;
+import players.MoveTransition;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=3,time=1)
+@Measurement(iterations=5,time=1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoveBenchmark //Move.execute for each kind of move, and the Player.makeMove wrapper around it
+{
+	public enum MoveKind
+	{
+		MAJOR_MOVE,
+		MAJOR_ATTACK_MOVE,
+		KING_ATTACK_MOVE,
+		PAWN_MOVE,
+		PAWN_ATTACK_MOVE,
+		PAWN_JUMP,
+		PAWN_EN_PASSANT_ATTACK_MOVE,
+		PAWN_PROMOTION,
+		CASTLE_MOVE;
+
+		boolean matches(final Move move) //Checked most specific class first, as PawnPromotion extends PawnMove and en passant extends PawnAttackMove
+		{
+			switch (this)
+			{
+				case MAJOR_MOVE: return move instanceof Move.MajorMove;
+				case MAJOR_ATTACK_MOVE: return move instanceof Move.MajorAttackMove;
+				case KING_ATTACK_MOVE: return move.getClass()==Move.AttackMove.class;
+				case PAWN_MOVE: return move.getClass()==Move.PawnMove.class;
+				case PAWN_ATTACK_MOVE: return move.getClass()==Move.PawnAttackMove.class;
+				case PAWN_JUMP: return move instanceof Move.PawnJump;
+				case PAWN_EN_PASSANT_ATTACK_MOVE: return move instanceof Move.PawnEnPassantAttackMove;
+				case PAWN_PROMOTION: return move instanceof Move.PawnPromotion;
+				default: return move.isCastlingMove();
+			}
+		}
+	}
+
+	@Param
+	public MoveKind moveKind;
+
+	private Board board;
+	private Move move;
+
+	@Setup
+	public void setUp() //Takes the first position in BenchmarkPositions where the side to move has a move of this kind
+	{
+		for (final Board candidate:BenchmarkPositions.createAll())
+		{
+			for (final Move candidateMove:candidate.currentPlayer().getLegalMoves())
+			{
+				if (this.moveKind.matches(candidateMove))
+				{
+					this.board=candidate;
+					this.move=candidateMove;
+					return;
+				}
+			}
+		}
+		throw new RuntimeException("No benchmark position has a move of kind "+this.moveKind);
+	}
+
+	@Benchmark
+	public Board execute()
+	{
+		return this.move.execute();
+	}
+
+	@Benchmark
+	public MoveTransition makeMove() //Adds the legality lookup in the board's memoized move list
+	{
+		return this.board.currentPlayer().makeMove(this.move);
+	}
+}
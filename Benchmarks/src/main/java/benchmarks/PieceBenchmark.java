@@ -0,0 +1,53 @@
+package benchmarks;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import elements.Board;
+import elements.Piece;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=3,time=1)
+@Measurement(iterations=5,time=1)
+@Fork(1)
+@State(Scope.Thread)
+public class PieceBenchmark //Piece.calculateLegalMoves for every piece of one type in a position
+{
+	@Param({"start","middlegame","endgame"})
+	public String position;
+
+	@Param({"PAWN","KNIGHT","BISHOP","ROOK","QUEEN","KING"})
+	public String pieceType;
+
+	private Board board;
+	private List<Piece> pieces;
+
+	@Setup
+	public void setUp()
+	{
+		this.board=BenchmarkPositions.create(this.position);
+		this.pieces=new ArrayList<>();
+		final Piece.PieceType type=Piece.PieceType.valueOf(this.pieceType);
+		for (final Piece piece:this.board.getWhitePieces())
+		{
+			if (piece.getPieceType()==type)
+				this.pieces.add(piece);
+		}
+		for (final Piece piece:this.board.getBlackPieces())
+		{
+			if (piece.getPieceType()==type)
+				this.pieces.add(piece);
+		}
+	}
+
+	@Benchmark
+	public void calculateLegalMoves(final Blackhole blackhole)
+	{
+		for (final Piece piece:this.pieces)
+			blackhole.consume(piece.calculateLegalMoves(this.board));
+	}
+}
@@ -3,43 +3,135 @@ package elements;
 import java.util.*;
 import java.lang.*;
 
+import elements.Piece.PieceType;
 import players.*;
 
 public class Board 
 {
-	private final List<Tile> gameBoard;
+	private final Piece[] gameBoard; //Piece on each tile or null, Tiles are only handed out on request
 	private final Collection<Piece> whitePieces;
 	private final Collection<Piece> blackPieces;
 	
+	private final long[] pieceBitboards; //One bitboard per piece type and alliance, bit i set means tile i holds that piece
+	private final long whiteOccupancy;
+	private final long blackOccupancy;
+	private final long occupancy;
+	
 	private final WhitePlayer whitePlayer;
 	private final BlackPlayer blackPlayer;
 	private final Player currentPlayer;
 	
 	private final Pawn enPassantPawn;
+	private volatile Collection<Move> whiteStandardLegalMoves; //Computed on first use, many boards are discarded before anyone asks for their moves
+	private volatile Collection<Move> blackStandardLegalMoves;
+	private final int castlingRights;
+	private final long zobristKey;
 	
 	private Board(final Builder builder) //Board constructor using builder
 	{
 		this.gameBoard=createGameBoard(builder);
-		this.whitePieces=calculateActivePieces(this.gameBoard,Alliance.WHITE);
-		this.blackPieces=calculateActivePieces(this.gameBoard,Alliance.BLACK);
+		this.pieceBitboards=builder.pieceBitboards.clone();
+		this.whiteOccupancy=calculateOccupancy(this.pieceBitboards,Alliance.WHITE);
+		this.blackOccupancy=calculateOccupancy(this.pieceBitboards,Alliance.BLACK);
+		this.occupancy=this.whiteOccupancy|this.blackOccupancy;
+		final List<Piece> whiteActivePieces=new ArrayList<>(16);
+		final List<Piece> blackActivePieces=new ArrayList<>(16);
+		calculateActivePieces(this.gameBoard,whiteActivePieces,blackActivePieces);
+		this.whitePieces=Collections.unmodifiableList(whiteActivePieces);
+		this.blackPieces=Collections.unmodifiableList(blackActivePieces);
 		this.enPassantPawn=builder.EnPassantPawn;
+		this.castlingRights=calculateCastlingRights(this.gameBoard);
+		this.zobristKey=builder.hasZobristKey?builder.zobristKey:calculateZobristKey(builder.nextMoveMaker); //Move.execute hands over an incrementally updated key
 		
-		final Collection<Move> whiteStandardLegalMoves=calculateLegalMoves(this.whitePieces);
-		final Collection<Move> blackStandardLegalMoves=calculateLegalMoves(this.blackPieces);
-		
-		this.whitePlayer=new WhitePlayer(this,whiteStandardLegalMoves,blackStandardLegalMoves);
-		this.blackPlayer=new BlackPlayer(this,whiteStandardLegalMoves,blackStandardLegalMoves);
+		this.whitePlayer=new WhitePlayer(this);
+		this.blackPlayer=new BlackPlayer(this);
 		this.currentPlayer=builder.nextMoveMaker.choosePlayer(this.whitePlayer,this.blackPlayer);
 	}
 	
-	private Collection<Move> calculateLegalMoves(Collection<Piece> pieces)  //Method to calculate all legal moves for a collection of pieces
+	public Collection<Move> getStandardLegalMoves(final Alliance alliance) //Legal piece moves (no castles) of one alliance, memoized per board
 	{
-		final List<Move> legalMoves=new ArrayList<>();
-		for (final Piece piece:pieces)
+		if (alliance.isWhite())
+		{
+			Collection<Move> moves=this.whiteStandardLegalMoves;
+			if (moves==null)
+			{
+				moves=LegalMoveGenerator.calculateLegalMoves(this,Alliance.WHITE);
+				this.whiteStandardLegalMoves=moves; //A racing thread at worst computes the same immutable list twice
+			}
+			return moves;
+		}
+		Collection<Move> moves=this.blackStandardLegalMoves;
+		if (moves==null)
 		{
-			legalMoves.addAll(piece.calculateLegalMoves(this));
+			moves=LegalMoveGenerator.calculateLegalMoves(this,Alliance.BLACK);
+			this.blackStandardLegalMoves=moves;
 		}
-		return Collections.unmodifiableList(legalMoves);
+		return moves;
+	}
+	
+	public boolean hasStandardLegalMoves(final Alliance alliance) //Answered from the memoized moves when they exist, otherwise by stopping at the first legal move found
+	{
+		final Collection<Move> moves=alliance.isWhite()?this.whiteStandardLegalMoves:this.blackStandardLegalMoves;
+		if (moves!=null)
+			return !moves.isEmpty();
+		return LegalMoveGenerator.hasLegalMove(this,alliance);
+	}
+	
+	private long calculateZobristKey(final Alliance nextMoveMaker) //Full Zobrist hash, only needed for boards not produced by a Move
+	{
+		long key=Zobrist.sideToMoveKey(nextMoveMaker)^Zobrist.castlingKey(this.castlingRights)^Zobrist.enPassantKey(this.enPassantPawn);
+		for (int i=0;i<this.pieceBitboards.length;i++)
+		{
+			long pieces=this.pieceBitboards[i];
+			while (pieces!=0)
+			{
+				key^=Zobrist.pieceKey(i,Long.numberOfTrailingZeros(pieces));
+				pieces&=pieces-1;
+			}
+		}
+		return key;
+	}
+	
+	private static int calculateCastlingRights(final Piece[] gameBoard) //Castling is still possible while the king and the corner rook have never moved
+	{
+		int rights=0;
+		if (isUnmoved(gameBoard,60,Alliance.WHITE,PieceType.KING))
+		{
+			if (isUnmoved(gameBoard,63,Alliance.WHITE,PieceType.ROOK))
+				rights|=BoardUtils.WHITE_KING_SIDE_CASTLE;
+			if (isUnmoved(gameBoard,56,Alliance.WHITE,PieceType.ROOK))
+				rights|=BoardUtils.WHITE_QUEEN_SIDE_CASTLE;
+		}
+		if (isUnmoved(gameBoard,4,Alliance.BLACK,PieceType.KING))
+		{
+			if (isUnmoved(gameBoard,7,Alliance.BLACK,PieceType.ROOK))
+				rights|=BoardUtils.BLACK_KING_SIDE_CASTLE;
+			if (isUnmoved(gameBoard,0,Alliance.BLACK,PieceType.ROOK))
+				rights|=BoardUtils.BLACK_QUEEN_SIDE_CASTLE;
+		}
+		return rights;
+	}
+	
+	private static boolean isUnmoved(final Piece[] gameBoard,final int tileCoord,final Alliance alliance,final PieceType pieceType)
+	{
+		final Piece piece=gameBoard[tileCoord];
+		return piece!=null && piece.getPieceAlliance()==alliance && piece.getPieceType()==pieceType && piece.isFirstMove();
+	}
+	
+	@Override
+	public boolean equals(final Object other) //Two boards are the same position when their Zobrist keys match
+	{
+		if (this==other)
+			return true;
+		if (!(other instanceof Board))
+			return false;
+		return this.zobristKey==((Board)other).zobristKey;
+	}
+	
+	@Override
+	public int hashCode()
+	{
+		return (int)(this.zobristKey^(this.zobristKey>>>32));
 	}
 	
 	@Override 
@@ -48,7 +140,7 @@ public class Board
 		final StringBuilder builder=new StringBuilder();
 		for (int i=0;i<64;i++)
 		{
-			final String tileText=this.gameBoard.get(i).toString();
+			final String tileText=getTile(i).toString();
 			builder.append(String.format("%3s", tileText));
 			if ((i+1)%8==0)
 				builder.append("\n");
@@ -77,6 +169,16 @@ public class Board
 		return this.enPassantPawn;
 	}
 	
+	public int getCastlingRights() //Castling right bits, see BoardUtils.WHITE_KING_SIDE_CASTLE and friends
+	{
+		return this.castlingRights;
+	}
+	
+	public long zobristKey() //64-bit position key covering piece placement, side to move, castling rights and the en passant pawn
+	{
+		return this.zobristKey;
+	}
+	
 	public Collection<Piece> getBlackPieces()
 	{
 		return this.blackPieces;
@@ -86,21 +188,85 @@ public class Board
 	{
 		return this.whitePieces;
 	}
+	
+	public long getPieceBitboard(final Alliance alliance,final PieceType pieceType) //Bitboard of all pieces of one type and alliance
+	{
+		return this.pieceBitboards[BoardUtils.bitboardIndex(alliance,pieceType)];
+	}
+	
+	public long getAllianceOccupancy(final Alliance alliance) //Bitboard of all tiles occupied by one alliance
+	{
+		return alliance.isWhite()?this.whiteOccupancy:this.blackOccupancy;
+	}
+	
+	public long getOccupancy() //Bitboard of all occupied tiles
+	{
+		return this.occupancy;
+	}
+	
+	public boolean isTileOccupied(final int tileCoord) //Occupancy check straight from the bitboards, without going through the Tile list
+	{
+		return (this.occupancy&BoardUtils.tileBit(tileCoord))!=0;
+	}
+	
+	public boolean isSquareAttacked(final int tileCoord,final Alliance byAlliance) //A handful of table lookups instead of scanning the opponent's moves
+	{
+		return attackersOf(tileCoord,byAlliance)!=0;
+	}
+	
+	public long attackersOf(final int tileCoord) //Bitboard of the pieces of both alliances attacking the tile
+	{
+		return attackersOf(tileCoord,Alliance.WHITE)|attackersOf(tileCoord,Alliance.BLACK);
+	}
+	
+	public long attackersOf(final int tileCoord,final Alliance attacker) //Bitboard of the attacker's pieces attacking the tile
+	{
+		return BoardUtils.attackersOf(this.pieceBitboards,tileCoord,attacker,this.occupancy);
+	}
+	
+	long attackersOf(final int tileCoord,final Alliance attacker,final long occupancy) //Same against a different occupancy, used to look through pieces that are about to move
+	{
+		return BoardUtils.attackersOf(this.pieceBitboards,tileCoord,attacker,occupancy);
+	}
 
 	public static class Builder //Using a builder to design the Board class as it is complex and has many parameters
 	{
-		Map<Integer,Piece> boardConfig;
+		final Piece[] boardConfig;
+		final long[] pieceBitboards;
 		Alliance nextMoveMaker;
 		Pawn EnPassantPawn;
+		long zobristKey;
+		boolean hasZobristKey;
 		
 		public Builder() 
 		{
-			this.boardConfig=new HashMap<>();
+			this.boardConfig=new Piece[64];
+			this.pieceBitboards=new long[BoardUtils.NUM_BITBOARDS];
 		}
 		
-		public Builder setPiece(final Piece piece)
+		public Builder(final Board board) //Starts from a copy of the board's pieces, so a move only has to rewrite the tiles it changes
 		{
-			this.boardConfig.put(piece.getPiecePosition(),piece);
+			this.boardConfig=board.gameBoard.clone();
+			this.pieceBitboards=board.pieceBitboards.clone();
+		}
+		
+		public Builder setPiece(final Piece piece) //Places the piece and keeps the bitboards in step, clearing whatever was on that tile before
+		{
+			final int tileCoord=piece.getPiecePosition();
+			clearTile(tileCoord);
+			this.boardConfig[tileCoord]=piece;
+			this.pieceBitboards[BoardUtils.bitboardIndex(piece)]|=BoardUtils.tileBit(tileCoord);
+			return this;
+		}
+		
+		public Builder clearTile(final int tileCoord) //Takes whatever piece is on the tile off the board
+		{
+			final Piece removedPiece=this.boardConfig[tileCoord];
+			if (removedPiece!=null)
+			{
+				this.pieceBitboards[BoardUtils.bitboardIndex(removedPiece)]&=~BoardUtils.tileBit(tileCoord);
+				this.boardConfig[tileCoord]=null;
+			}
 			return this;
 		}
 		
@@ -110,6 +276,13 @@ public class Board
 			return this;
 		}
 		
+		Builder setZobristKey(final long zobristKey) //Used by Move.execute, which knows the new key without rehashing the whole board
+		{
+			this.zobristKey=zobristKey;
+			this.hasZobristKey=true;
+			return this;
+		}
+		
 		public Board build()
 		{
 			return new Board(this);
@@ -121,74 +294,84 @@ public class Board
 		}
 	}
 	
-	private static Collection<Piece> calculateActivePieces(final List<Tile> gameBoard,final Alliance alliance) //Method to return a list of all pieces on the board for white/black
+	private static void calculateActivePieces(final Piece[] gameBoard,final List<Piece> whiteActivePieces,final List<Piece> blackActivePieces) //Method to sort all pieces on the board into white and black in a single pass
 	{
-		final List<Piece> activePieces=new ArrayList<>();
-		for (final Tile tile:gameBoard)
+		for (final Piece piece:gameBoard)
 		{
-			if (tile.isTileOccupied())
+			if (piece!=null)
 			{
-				final Piece piece=tile.getPiece();
-				if (piece.pieceAlliance==alliance)
-					activePieces.add(piece);
+				if (piece.pieceAlliance.isWhite())
+					whiteActivePieces.add(piece);
+				else
+					blackActivePieces.add(piece);
 			}
 		}
-		return Collections.unmodifiableList(activePieces);
 	}
 
-	public Tile getTile (final int tileCoord)    //Method for getting the tile at a coordinate
+	private static long calculateOccupancy(final long[] pieceBitboards,final Alliance alliance) //Method to combine the bitboards of one alliance into a single occupancy word
+	{
+		final int firstIndex=alliance.ordinal()*BoardUtils.NUM_PIECE_TYPES;
+		long allianceOccupancy=0L;
+		for (int i=firstIndex;i<firstIndex+BoardUtils.NUM_PIECE_TYPES;i++)
+			allianceOccupancy|=pieceBitboards[i];
+		return allianceOccupancy;
+	}
+
+	public Tile getTile (final int tileCoord)    //Method for getting the tile at a coordinate, served from Tile's cache
 	{
-		return gameBoard.get(tileCoord);
+		return Tile.createTile(tileCoord,this.gameBoard[tileCoord]);
 	}
 	
-	private static List<Tile> createGameBoard(final Builder builder)  //Creating a list of tiles as the game board
+	public Piece getPiece(final int tileCoord) //Piece on the tile, or null when it is empty
 	{
-		final Tile[]tiles = new Tile[64];
-		for (int i=0;i<64;i++)
-			tiles[i]=(Tile.createTile(i,builder.boardConfig.get(i)));
-		return Arrays.asList(tiles);
+		return this.gameBoard[tileCoord];
+	}
+	
+	private static Piece[] createGameBoard(final Builder builder)  //Copying the builder's tiles so the builder can keep being used
+	{
+		return builder.boardConfig.clone();
 	}
 	
 	public static Board createStandardBoard()  //Setting the initial game board with all the pieces using the builder.setPiece method
 	{
 		final Builder builder=new Builder();
 		//Black Pieces Layout
-		builder.setPiece(new Rook(Alliance.BLACK,0));
-		builder.setPiece(new Knight(Alliance.BLACK,1));
-		builder.setPiece(new Bishop(Alliance.BLACK,2));
-		builder.setPiece(new Queen(Alliance.BLACK,3));
-		builder.setPiece(new King(Alliance.BLACK,4));
-		builder.setPiece(new Bishop(Alliance.BLACK,5));
-		builder.setPiece(new Knight(Alliance.BLACK,6));
-		builder.setPiece(new Rook(Alliance.BLACK,7));
+		builder.setPiece(Piece.of(PieceType.ROOK,Alliance.BLACK,0,true));
+		builder.setPiece(Piece.of(PieceType.KNIGHT,Alliance.BLACK,1,true));
+		builder.setPiece(Piece.of(PieceType.BISHOP,Alliance.BLACK,2,true));
+		builder.setPiece(Piece.of(PieceType.QUEEN,Alliance.BLACK,3,true));
+		builder.setPiece(Piece.of(PieceType.KING,Alliance.BLACK,4,true));
+		builder.setPiece(Piece.of(PieceType.BISHOP,Alliance.BLACK,5,true));
+		builder.setPiece(Piece.of(PieceType.KNIGHT,Alliance.BLACK,6,true));
+		builder.setPiece(Piece.of(PieceType.ROOK,Alliance.BLACK,7,true));
 		
-		builder.setPiece(new Pawn(Alliance.BLACK,8));
-		builder.setPiece(new Pawn(Alliance.BLACK,9));
-		builder.setPiece(new Pawn(Alliance.BLACK,10));
-		builder.setPiece(new Pawn(Alliance.BLACK,11));
-		builder.setPiece(new Pawn(Alliance.BLACK,12));
-		builder.setPiece(new Pawn(Alliance.BLACK,13));
-		builder.setPiece(new Pawn(Alliance.BLACK,14));
-		builder.setPiece(new Pawn(Alliance.BLACK,15));
+		builder.setPiece(Piece.of(PieceType.PAWN,Alliance.BLACK,8,true));
+		builder.setPiece(Piece.of(PieceType.PAWN,Alliance.BLACK,9,true));
+		builder.setPiece(Piece.of(PieceType.PAWN,Alliance.BLACK,10,true));
+		builder.setPiece(Piece.of(PieceType.PAWN,Alliance.BLACK,11,true));
+		builder.setPiece(Piece.of(PieceType.PAWN,Alliance.BLACK,12,true));
+		builder.setPiece(Piece.of(PieceType.PAWN,Alliance.BLACK,13,true));
+		builder.setPiece(Piece.of(PieceType.PAWN,Alliance.BLACK,14,true));
+		builder.setPiece(Piece.of(PieceType.PAWN,Alliance.BLACK,15,true));
 		
 		//White Pieces layout
-		builder.setPiece(new Pawn(Alliance.WHITE,48));
-		builder.setPiece(new Pawn(Alliance.WHITE,49));
-		builder.setPiece(new Pawn(Alliance.WHITE,50));
-		builder.setPiece(new Pawn(Alliance.WHITE,51));
-		builder.setPiece(new Pawn(Alliance.WHITE,52));
-		builder.setPiece(new Pawn(Alliance.WHITE,53));
-		builder.setPiece(new Pawn(Alliance.WHITE,54));
-		builder.setPiece(new Pawn(Alliance.WHITE,55));
+		builder.setPiece(Piece.of(PieceType.PAWN,Alliance.WHITE,48,true));
+		builder.setPiece(Piece.of(PieceType.PAWN,Alliance.WHITE,49,true));
+		builder.setPiece(Piece.of(PieceType.PAWN,Alliance.WHITE,50,true));
+		builder.setPiece(Piece.of(PieceType.PAWN,Alliance.WHITE,51,true));
+		builder.setPiece(Piece.of(PieceType.PAWN,Alliance.WHITE,52,true));
+		builder.setPiece(Piece.of(PieceType.PAWN,Alliance.WHITE,53,true));
+		builder.setPiece(Piece.of(PieceType.PAWN,Alliance.WHITE,54,true));
+		builder.setPiece(Piece.of(PieceType.PAWN,Alliance.WHITE,55,true));
 		
-		builder.setPiece(new Rook(Alliance.WHITE,56));
-		builder.setPiece(new Knight(Alliance.WHITE,57));
-		builder.setPiece(new Bishop(Alliance.WHITE,58));
-		builder.setPiece(new Queen(Alliance.WHITE,59));
-		builder.setPiece(new King(Alliance.WHITE,60));
-		builder.setPiece(new Bishop(Alliance.WHITE,61));
-		builder.setPiece(new Knight(Alliance.WHITE,62));
-		builder.setPiece(new Rook(Alliance.WHITE,63));
+		builder.setPiece(Piece.of(PieceType.ROOK,Alliance.WHITE,56,true));
+		builder.setPiece(Piece.of(PieceType.KNIGHT,Alliance.WHITE,57,true));
+		builder.setPiece(Piece.of(PieceType.BISHOP,Alliance.WHITE,58,true));
+		builder.setPiece(Piece.of(PieceType.QUEEN,Alliance.WHITE,59,true));
+		builder.setPiece(Piece.of(PieceType.KING,Alliance.WHITE,60,true));
+		builder.setPiece(Piece.of(PieceType.BISHOP,Alliance.WHITE,61,true));
+		builder.setPiece(Piece.of(PieceType.KNIGHT,Alliance.WHITE,62,true));
+		builder.setPiece(Piece.of(PieceType.ROOK,Alliance.WHITE,63,true));
 		
 		builder.setMoveMaker(Alliance.WHITE);
 		return builder.build();
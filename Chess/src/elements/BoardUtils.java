@@ -2,6 +2,8 @@ package elements;
 
 import java.util.*;
 
+import elements.Piece.PieceType;
+
 public class BoardUtils 
 {
 	private BoardUtils() //Stops people from trying to instantiate this class
@@ -23,9 +25,26 @@ public class BoardUtils
 	public static final boolean[] SECOND_RANK=inRow(48);
 	public static final boolean[] FIRST_RANK=inRow(56);
 	
+	public static final long[] KNIGHT_ATTACKS=calculateLeaperAttacks(new int[][] {{-2,-1},{-2,1},{-1,-2},{-1,2},{1,-2},{1,2},{2,-1},{2,1}}); //Destination mask of a knight on each tile
+	public static final long[] KING_ATTACKS=calculateLeaperAttacks(new int[][] {{-1,-1},{-1,0},{-1,1},{0,-1},{0,1},{1,-1},{1,0},{1,1}}); //Destination mask of a king on each tile
+	public static final long[][] PAWN_ATTACKS=calculatePawnTable(new int[][] {{-1,-1},{-1,1}},null); //Diagonal capture masks, indexed by alliance ordinal then tile
+	public static final long[][] PAWN_PUSHES=calculatePawnTable(new int[][] {{-1,0}},null); //Single push destination, indexed by alliance ordinal then tile
+	public static final long[][] PAWN_JUMPS=calculatePawnTable(new int[][] {{-2,0}},new int[] {6,1}); //Double push destination, only from each alliance's starting row
+	
+	public static final long ALL_TILES=-1L;
+	public static final long[][] BETWEEN=calculateBetweenTiles(); //Tiles strictly between two tiles on a shared row, column or diagonal, empty otherwise
+	
+	public static final int WHITE_KING_SIDE_CASTLE=1; //Castling right bits, as stored by Board.getCastlingRights and MutableBoard
+	public static final int WHITE_QUEEN_SIDE_CASTLE=2;
+	public static final int BLACK_KING_SIDE_CASTLE=4;
+	public static final int BLACK_QUEEN_SIDE_CASTLE=8;
+	public static final int[] CASTLING_MASKS=calculateCastlingMasks(); //Castling rights that survive a move from or to each tile
+	
 	public static final List<String> ALGEBRAIC_NOTATION=initializeAlgebraicNotation();
 	public static final Map<String,Integer> POSITION_TO_COORDINATE=initializePositionToCoordinateMap();
 	public static final int START_TILE_INDEX = 0;
+	public static final int NUM_PIECE_TYPES=PieceType.values().length;
+	public static final int NUM_BITBOARDS=2*NUM_PIECE_TYPES; //One per piece type for each of the 2 alliances
 	
 	private static boolean[] inColumn(int columnNumber) //Method that marks all tiles in specified column as true
 	{
@@ -53,6 +72,93 @@ public class BoardUtils
 			return row;
 	}
 	
+	private static long[] calculateLeaperAttacks(final int[][] steps) //Builds a 64-entry table of destination masks from row/column steps, dropping steps that leave the board
+	{
+		final long[] attacks=new long[64];
+		for (int tileCoord=0;tileCoord<64;tileCoord++)
+			attacks[tileCoord]=calculateSteps(tileCoord,steps,1);
+		return attacks;
+	}
+	
+	private static long[][] calculatePawnTable(final int[][] whiteSteps,final int[] startingRows) //White steps run up the board (towards row 0), black ones are mirrored
+	{
+		final long[][] table=new long[Alliance.values().length][64];
+		for (final Alliance alliance:Alliance.values())
+		{
+			for (int tileCoord=0;tileCoord<64;tileCoord++)
+			{
+				if (startingRows==null || tileCoord/8==startingRows[alliance.ordinal()])
+					table[alliance.ordinal()][tileCoord]=calculateSteps(tileCoord,whiteSteps,-alliance.getdirection());
+			}
+		}
+		return table;
+	}
+	
+	private static long calculateSteps(final int tileCoord,final int[][] steps,final int rowSign)
+	{
+		long destinations=0L;
+		for (final int[] step:steps)
+		{
+			final int row=tileCoord/8+rowSign*step[0];
+			final int column=tileCoord%8+step[1];
+			if (row>=0 && row<8 && column>=0 && column<8)
+				destinations|=tileBit(row*8+column);
+		}
+		return destinations;
+	}
+	
+	public static long attackersOf(final long[] pieceBitboards,final int tileCoord,final Alliance attacker,final long occupancy) //Pieces of the attacker hitting tileCoord, found by probing outwards from the tile with each piece's own attack pattern
+	{
+		final int attackerIndex=attacker.ordinal();
+		final int base=attackerIndex*NUM_PIECE_TYPES;
+		final long queens=pieceBitboards[base+PieceType.QUEEN.ordinal()];
+		return (PAWN_ATTACKS[1-attackerIndex][tileCoord]&pieceBitboards[base+PieceType.PAWN.ordinal()])| //A pawn attacks the tile if a defending pawn there would attack the pawn
+			   (KNIGHT_ATTACKS[tileCoord]&pieceBitboards[base+PieceType.KNIGHT.ordinal()])|
+			   (KING_ATTACKS[tileCoord]&pieceBitboards[base+PieceType.KING.ordinal()])|
+			   (MagicBitboards.bishopAttacks(tileCoord,occupancy)&(pieceBitboards[base+PieceType.BISHOP.ordinal()]|queens))|
+			   (MagicBitboards.rookAttacks(tileCoord,occupancy)&(pieceBitboards[base+PieceType.ROOK.ordinal()]|queens));
+	}
+	
+	private static long[][] calculateBetweenTiles()
+	{
+		final long[][] between=new long[64][64];
+		for (int from=0;from<64;from++)
+		{
+			for (int rowStep=-1;rowStep<=1;rowStep++)
+			{
+				for (int columnStep=-1;columnStep<=1;columnStep++)
+				{
+					if (rowStep==0 && columnStep==0)
+						continue;
+					long path=0L;
+					int row=from/8+rowStep;
+					int column=from%8+columnStep;
+					while (row>=0 && row<8 && column>=0 && column<8)
+					{
+						between[from][row*8+column]=path;
+						path|=tileBit(row*8+column);
+						row+=rowStep;
+						column+=columnStep;
+					}
+				}
+			}
+		}
+		return between;
+	}
+	
+	private static int[] calculateCastlingMasks() //Moving a king or rook away, or capturing on a rook's corner, removes those rights
+	{
+		final int[] masks=new int[64];
+		Arrays.fill(masks,WHITE_KING_SIDE_CASTLE|WHITE_QUEEN_SIDE_CASTLE|BLACK_KING_SIDE_CASTLE|BLACK_QUEEN_SIDE_CASTLE);
+		masks[60]&=~(WHITE_KING_SIDE_CASTLE|WHITE_QUEEN_SIDE_CASTLE);
+		masks[63]&=~WHITE_KING_SIDE_CASTLE;
+		masks[56]&=~WHITE_QUEEN_SIDE_CASTLE;
+		masks[4]&=~(BLACK_KING_SIDE_CASTLE|BLACK_QUEEN_SIDE_CASTLE);
+		masks[7]&=~BLACK_KING_SIDE_CASTLE;
+		masks[0]&=~BLACK_QUEEN_SIDE_CASTLE;
+		return masks;
+	}
+	
 	private static List<String> initializeAlgebraicNotation() {
         return Collections.unmodifiableList(Arrays.asList(
                 "a8", "b8", "c8", "d8", "e8", "f8", "g8", "h8",
@@ -79,6 +185,21 @@ public class BoardUtils
 		return coord>=0 && coord<64;
 	}
 
+	public static long tileBit(final int tileCoord) //Bitboard with only the given tile set (bit 0 is a8, bit 63 is h1, matching tile coordinates)
+	{
+		return 1L<<tileCoord;
+	}
+	
+	public static int bitboardIndex(final Alliance alliance,final PieceType pieceType) //Index of the bitboard holding this piece type and alliance
+	{
+		return alliance.ordinal()*NUM_PIECE_TYPES+pieceType.ordinal();
+	}
+	
+	public static int bitboardIndex(final Piece piece)
+	{
+		return bitboardIndex(piece.getPieceAlliance(),piece.getPieceType());
+	}
+
 	public static int getCoordinateAtPosition(final String position)
 	{
 		return POSITION_TO_COORDINATE.get(position);
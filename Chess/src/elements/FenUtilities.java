@@ -0,0 +1,75 @@
+package elements;
+
+import elements.Piece.PieceType;
+
+public final class FenUtilities //Reads positions written in Forsyth-Edwards Notation, e.g. the standard perft test positions
+{
+	private FenUtilities() //Stops people from trying to instantiate this class
+	{
+		throw new RuntimeException("Cannot instantiate this class");
+	}
+
+	public static Board createGameFromFEN(final String fenString) //Move counters are ignored, the board does not track them
+	{
+		final String[] fields=fenString.trim().split("\\s+");
+		if (fields.length<4)
+			throw new RuntimeException("Invalid FEN: "+fenString);
+
+		final Board.Builder builder=new Board.Builder();
+		final String castlingRights=fields[2];
+		int tileCoord=0;
+		for (final char c:fields[0].toCharArray())
+		{
+			if (c=='/')
+				continue;
+			if (Character.isDigit(c))
+			{
+				tileCoord+=c-'0';
+				continue;
+			}
+			if (tileCoord>=64)
+				throw new RuntimeException("Invalid FEN: "+fenString);
+			final Alliance alliance=Character.isUpperCase(c)?Alliance.WHITE:Alliance.BLACK;
+			final PieceType pieceType=parsePieceType(Character.toLowerCase(c),fenString);
+			builder.setPiece(Piece.of(pieceType,alliance,tileCoord,isFirstMove(pieceType,alliance,tileCoord,castlingRights)));
+			tileCoord++;
+		}
+
+		final Alliance moveMaker=fields[1].equals("w")?Alliance.WHITE:Alliance.BLACK;
+		builder.setMoveMaker(moveMaker);
+		if (!fields[3].equals("-")) //FEN names the skipped tile, the Board wants the pawn that jumped over it
+		{
+			final int enPassantPawnCoord=BoardUtils.getCoordinateAtPosition(fields[3])-moveMaker.getdirection()*8;
+			builder.setEnPassantPawn((Pawn)Piece.of(PieceType.PAWN,moveMaker.isWhite()?Alliance.BLACK:Alliance.WHITE,enPassantPawnCoord,false));
+		}
+		return builder.build();
+	}
+
+	private static PieceType parsePieceType(final char pieceChar,final String fenString)
+	{
+		switch (pieceChar)
+		{
+			case 'p': return PieceType.PAWN;
+			case 'n': return PieceType.KNIGHT;
+			case 'b': return PieceType.BISHOP;
+			case 'r': return PieceType.ROOK;
+			case 'q': return PieceType.QUEEN;
+			case 'k': return PieceType.KING;
+			default: throw new RuntimeException("Invalid FEN: "+fenString);
+		}
+	}
+
+	private static boolean isFirstMove(final PieceType pieceType,final Alliance alliance,final int tileCoord,final String castlingRights) //Castling rights are stored as unmoved kings and rooks
+	{
+		final boolean kingSide=castlingRights.indexOf(alliance.isWhite()?'K':'k')!=-1;
+		final boolean queenSide=castlingRights.indexOf(alliance.isWhite()?'Q':'q')!=-1;
+		final int homeRow=alliance.isWhite()?56:0;
+		switch (pieceType)
+		{
+			case PAWN: return BoardUtils.PAWN_JUMPS[alliance.ordinal()][tileCoord]!=0;
+			case KING: return tileCoord==homeRow+4 && (kingSide || queenSide);
+			case ROOK: return (tileCoord==homeRow+7 && kingSide) || (tileCoord==homeRow && queenSide);
+			default: return false;
+		}
+	}
+}
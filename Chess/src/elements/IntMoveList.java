@@ -0,0 +1,83 @@
+package elements;
+
+import java.util.Arrays;
+
+public final class IntMoveList //Growable list of MoveEncoding ints, meant to be cleared and reused rather than reallocated
+{
+	private static final int DEFAULT_CAPACITY=256; //More than the legal moves of any reachable position
+
+	private int[] moves;
+	private int size;
+
+	public IntMoveList()
+	{
+		this(DEFAULT_CAPACITY);
+	}
+
+	public IntMoveList(final int capacity)
+	{
+		this.moves=new int[capacity];
+	}
+
+	public void add(final int move)
+	{
+		if (this.size==this.moves.length)
+			this.moves=Arrays.copyOf(this.moves,this.moves.length*2);
+		this.moves[this.size++]=move;
+	}
+
+	public int get(final int index)
+	{
+		return this.moves[index];
+	}
+
+	public void set(final int index,final int move)
+	{
+		this.moves[index]=move;
+	}
+
+	public void swap(final int first,final int second)
+	{
+		final int move=this.moves[first];
+		this.moves[first]=this.moves[second];
+		this.moves[second]=move;
+	}
+
+	public boolean contains(final int move)
+	{
+		for (int i=0;i<this.size;i++)
+		{
+			if (this.moves[i]==move)
+				return true;
+		}
+		return false;
+	}
+
+	public int size()
+	{
+		return this.size;
+	}
+
+	public boolean isEmpty()
+	{
+		return this.size==0;
+	}
+
+	public void clear() //Keeps the backing array so the list can be refilled without allocating
+	{
+		this.size=0;
+	}
+
+	@Override
+	public String toString()
+	{
+		final StringBuilder builder=new StringBuilder("[");
+		for (int i=0;i<this.size;i++)
+		{
+			if (i>0)
+				builder.append(", ");
+			builder.append(MoveEncoding.toString(this.moves[i]));
+		}
+		return builder.append("]").toString();
+	}
+}
@@ -11,8 +11,6 @@ import elements.Piece.PieceType;
 
 public class King extends Piece
 {
-	private final static int[] CANDIDATE_MOVE_VECTOR_COORDINATES= {-9,-8,-7,-1,1,7,8,9}; //Possible offsets for king moves
-	
 	public King(Alliance pieceAlliance,int piecePosition) 
 	{
 		super(PieceType.KING,piecePosition, pieceAlliance,true);
@@ -24,35 +22,23 @@ public class King extends Piece
 	}
 
 	@Override
-	public Collection<Move> calculateLegalMoves(Board board) 
+	public Collection<Move> calculateLegalMoves(final Board board,final long destinationMask) 
 	{
 		final List<Move> legalMoves=new ArrayList<>(); //Arraylist for all legal moves
+		long destinations=BoardUtils.KING_ATTACKS[this.piecePosition]&~board.getAllianceOccupancy(this.pieceAlliance)&destinationMask; //Precomputed king steps minus tiles holding own pieces
 		
-		for (int currentCandidateOffset:CANDIDATE_MOVE_VECTOR_COORDINATES) //Looping through all possible offset
+		while (destinations!=0)
 		{
-			final int candidateDestinationCoord=this.piecePosition+currentCandidateOffset; //Setting candidateDestinationCoord to current piecePosition + offset
-			
-			if (isFirstColumnExclusion(this.piecePosition,currentCandidateOffset) || isEighthColumnExclusion(this.piecePosition,currentCandidateOffset)) 
-				continue; //Skipping exclusions
+			final int candidateDestinationCoord=Long.numberOfTrailingZeros(destinations);
+			destinations&=destinations-1;
 			
-			if (BoardUtils.isValidTileCoord(candidateDestinationCoord)) //Checking if current position is valid
+			if (!board.isTileOccupied(candidateDestinationCoord)) //Add major move if candidate tile is empty
 			{
-				final Tile candidateDestinationTile=board.getTile(candidateDestinationCoord);
-				
-				if (!candidateDestinationTile.isTileOccupied()) //Add major move if candidate tile is empty
-				{
-					legalMoves.add(new MajorMove(board,this,candidateDestinationCoord));
-				}
-				else //Add attack move if candidate tile contains enemy piece (opposite alliance)
-				{
-					final Piece pieceAtDestination=candidateDestinationTile.getPiece();
-					final Alliance pieceAlliance=pieceAtDestination.getPieceAlliance();
-					
-					if (this.pieceAlliance!=pieceAlliance)
-					{
-						legalMoves.add(new AttackMove(board,this,candidateDestinationCoord,pieceAtDestination));
-					}
-				}
+				legalMoves.add(new MajorMove(board,this,candidateDestinationCoord));
+			}
+			else //Otherwise the tile holds an enemy piece
+			{
+				legalMoves.add(new AttackMove(board,this,candidateDestinationCoord,board.getPiece(candidateDestinationCoord)));
 			}
 		}
 		
@@ -67,16 +53,6 @@ public class King extends Piece
 	
 	@Override
 	public King movePiece(Move move) {
-		return new King(move.getMovedPiece().getPieceAlliance(),move.getDestinationCoord());
-	}
-	
-	private static boolean isFirstColumnExclusion(final int currentPosition, final int candidateOffset) //Boolean method to exclude edge cases on first column that doesn't follow the possible offsets rule
-	{
-		return BoardUtils.FIRST_COLUMN[currentPosition] && (candidateOffset==-9||candidateOffset==-1||candidateOffset==7);
-	}
-	
-	private static boolean isEighthColumnExclusion(final int currentPosition, final int candidateOffset) //Boolean method to exclude edge cases on second column that doesn't follow the possible offsets rule
-	{
-		return BoardUtils.SECOND_COLUMN[currentPosition] && (candidateOffset==-7 || candidateOffset==1 || candidateOffset==9);
+		return (King)Piece.of(PieceType.KING,move.getMovedPiece().getPieceAlliance(),move.getDestinationCoord(),false);
 	}
 }
@@ -0,0 +1,118 @@
+package elements;
+
+import java.util.*;
+
+import elements.Move.PawnEnPassantAttackMove;
+import elements.Piece.PieceType;
+
+final class LegalMoveGenerator //Generates only legal piece moves by working out checkers and pins up front, so no move has to be played to be rejected
+{
+	private LegalMoveGenerator() //Stops people from trying to instantiate this class
+	{
+		throw new RuntimeException("Cannot instantiate this class");
+	}
+
+	static Collection<Move> calculateLegalMoves(final Board board,final Alliance alliance) //Legal piece moves of one alliance, castles are left to the Player
+	{
+		return Collections.unmodifiableList(generateLegalMoves(board,alliance,false));
+	}
+
+	static boolean hasLegalMove(final Board board,final Alliance alliance) //Stops at the first legal move, trying the king's escapes before anything else
+	{
+		return !generateLegalMoves(board,alliance,true).isEmpty();
+	}
+
+	private static List<Move> generateLegalMoves(final Board board,final Alliance alliance,final boolean firstMoveOnly)
+	{
+		final Alliance opponent=alliance.isWhite()?Alliance.BLACK:Alliance.WHITE;
+		final long kingBitboard=board.getPieceBitboard(alliance,PieceType.KING);
+		final Collection<Piece> pieces=alliance.isWhite()?board.getWhitePieces():board.getBlackPieces();
+		if (kingBitboard==0) //Only hand-built boards lack a king, with nothing to protect every move is legal
+			return calculateMaskedMoves(board,pieces,BoardUtils.ALL_TILES);
+
+		final int kingTile=Long.numberOfTrailingZeros(kingBitboard);
+		final long occupancy=board.getOccupancy();
+		final long checkers=board.attackersOf(kingTile,opponent);
+
+		final List<Move> legalMoves=new ArrayList<>(); //The king only needs its destinations checked, with itself lifted off the board so it can't hide behind its own shadow
+		legalMoves.addAll(board.getPiece(kingTile).calculateLegalMoves(board,calculateSafeKingTiles(board,kingTile,alliance,opponent,occupancy^kingBitboard)));
+		if (Long.bitCount(checkers)>1 || (firstMoveOnly && !legalMoves.isEmpty())) //In double check only the king can move
+			return legalMoves;
+
+		final long checkMask=checkers==0?BoardUtils.ALL_TILES:checkers|BoardUtils.BETWEEN[kingTile][Long.numberOfTrailingZeros(checkers)]; //Capture the checker or block its ray
+		final long[] pinRays=calculatePinRays(board,kingTile,alliance,opponent,occupancy);
+		for (final Piece piece:pieces)
+		{
+			if (piece.getPieceType().isKing())
+				continue;
+			final long destinationMask=pinRays==null?checkMask:checkMask&pinRays[piece.getPiecePosition()];
+			if (destinationMask==0)
+				continue;
+			for (final Move move:piece.calculateLegalMoves(board,destinationMask))
+			{
+				if (!(move instanceof PawnEnPassantAttackMove) || isEnPassantLegal(board,(PawnEnPassantAttackMove)move,kingTile,opponent,occupancy))
+				{
+					legalMoves.add(move);
+					if (firstMoveOnly)
+						return legalMoves;
+				}
+			}
+		}
+		return legalMoves;
+	}
+
+	private static List<Move> calculateMaskedMoves(final Board board,final Collection<Piece> pieces,final long destinationMask)
+	{
+		final List<Move> moves=new ArrayList<>();
+		for (final Piece piece:pieces)
+			moves.addAll(piece.calculateLegalMoves(board,destinationMask));
+		return moves;
+	}
+
+	private static long calculateSafeKingTiles(final Board board,final int kingTile,final Alliance alliance,final Alliance opponent,final long occupancyWithoutKing)
+	{
+		long safeTiles=0L;
+		long candidates=BoardUtils.KING_ATTACKS[kingTile]&~board.getAllianceOccupancy(alliance);
+		while (candidates!=0)
+		{
+			final int candidateCoord=Long.numberOfTrailingZeros(candidates);
+			candidates&=candidates-1;
+			if (board.attackersOf(candidateCoord,opponent,occupancyWithoutKing)==0)
+				safeTiles|=BoardUtils.tileBit(candidateCoord);
+		}
+		return safeTiles;
+	}
+
+	private static long[] calculatePinRays(final Board board,final int kingTile,final Alliance alliance,final Alliance opponent,final long occupancy) //Tiles each pinned piece may still move to, or null when nothing is pinned
+	{
+		final long queens=board.getPieceBitboard(opponent,PieceType.QUEEN);
+		final long opponentOccupancy=board.getAllianceOccupancy(opponent);
+		long pinners=(MagicBitboards.rookAttacks(kingTile,opponentOccupancy)&(board.getPieceBitboard(opponent,PieceType.ROOK)|queens))|
+					 (MagicBitboards.bishopAttacks(kingTile,opponentOccupancy)&(board.getPieceBitboard(opponent,PieceType.BISHOP)|queens)); //Sliders that would see the king if our own pieces were not there
+
+		long[] pinRays=null;
+		while (pinners!=0)
+		{
+			final int pinnerCoord=Long.numberOfTrailingZeros(pinners);
+			pinners&=pinners-1;
+			final long between=BoardUtils.BETWEEN[kingTile][pinnerCoord];
+			final long blockers=between&occupancy;
+			if (Long.bitCount(blockers)!=1 || (blockers&board.getAllianceOccupancy(alliance))==0) //Exactly one of our pieces in the way makes a pin
+				continue;
+			if (pinRays==null)
+			{
+				pinRays=new long[64];
+				Arrays.fill(pinRays,BoardUtils.ALL_TILES);
+			}
+			pinRays[Long.numberOfTrailingZeros(blockers)]=between|BoardUtils.tileBit(pinnerCoord); //A pinned piece can slide along the ray or take the pinner
+		}
+		return pinRays;
+	}
+
+	private static boolean isEnPassantLegal(final Board board,final PawnEnPassantAttackMove move,final int kingTile,final Alliance opponent,final long occupancy) //En passant lifts two pieces off one row, which pin rays don't cover, so it is checked on the resulting occupancy
+	{
+		final long capturedBit=BoardUtils.tileBit(move.getAttackedPiece().getPiecePosition());
+		final long resultingOccupancy=(occupancy^BoardUtils.tileBit(move.getCurrentCoord())^capturedBit)|BoardUtils.tileBit(move.getDestinationCoord());
+		return (board.attackersOf(kingTile,opponent,resultingOccupancy)&~capturedBit)==0;
+	}
+}
@@ -0,0 +1,233 @@
+package elements;
+
+public final class MagicBitboards //Precomputed sliding attack tables: attacks for a rook or bishop on a tile are one multiply, shift and lookup
+{
+	private MagicBitboards() //Stops people from trying to instantiate this class
+	{
+		throw new RuntimeException("Cannot instantiate this class");
+	}
+
+	private static final int[][] ROOK_DIRECTIONS= {{-1,0},{1,0},{0,-1},{0,1}}; //Row and column steps of the rook rays
+	private static final int[][] BISHOP_DIRECTIONS= {{-1,-1},{-1,1},{1,-1},{1,1}}; //Row and column steps of the bishop rays
+	private static final long MAGIC_SEED=0x2545F4914F6CDD1DL; //Fixed seed so main finds the same magics on every run
+
+	private static final long[] ROOK_MAGICS= //Found by main's fixed-seed search, together with BISHOP_MAGICS. Regenerate them with main if the table layout changes
+	{
+		0x008000908064C000L,0x0040200040001000L,0x0180100080A0010AL,0x8880041000800800L,
+		0x1200100201200804L,0x0200020004011008L,0x2180010000800600L,0x0200005088210204L,
+		0x0000800080204001L,0x1000804000802001L,0x8240801000200080L,0x8611001004200900L,
+		0x008180800C001800L,0x0100800200800400L,0x0A02000102000408L,0x8020802300104280L,
+		0x0080004000402000L,0xE010104000402000L,0x0800808010002000L,0xA280210008100100L,
+		0x0001818014000800L,0xA002010100080400L,0x0008040088020130L,0x0001020004048845L,
+		0x0081826280004004L,0x2020810900284000L,0x0200100080802000L,0x0200080080100080L,
+		0x8083080100100500L,0x4406000901000400L,0x0005020080800100L,0x0090204200008114L,
+		0x0010400094800420L,0x0900804000802002L,0x0201001841002000L,0x4100080080801000L,
+		0x4540040080800800L,0x0000800400800200L,0x9281800100808200L,0x8004048102000854L,
+		0x4420802040008006L,0x0880500020004002L,0x0801200241050010L,0x8400080010008080L,
+		0x0008000500090010L,0x0082009084020008L,0x4012000108020004L,0x9000104D08860004L,
+		0x2004204114800100L,0x0148802112400300L,0x0202842000100880L,0x001B080080900080L,
+		0x001A002008100600L,0x0004008004020080L,0x5181000600040300L,0x0000044401128A00L,
+		0x8044110480002441L,0x1023012082044112L,0x00804080200A0012L,0x000420310A004A42L,
+		0x0023001004020801L,0x0882001008040102L,0x000230088118020CL,0x0000019025040042L
+	};
+	private static final long[] BISHOP_MAGICS=
+	{
+		0x1010220204082A00L,0x80E0020202002804L,0x2008480104200020L,0x000220920280002DL,
+		0x32040421000B0284L,0x1002080404000400L,0x0004160892080040L,0x2203024206204201L,
+		0x0002404264010200L,0x1120908408428124L,0xB100424403002280L,0x240008060440C288L,
+		0x2040040420490400L,0x0100620210040022L,0x0400084104202028L,0x0010050080908820L,
+		0x0C90A04490824802L,0x000200A008210130L,0x0C08001000204010L,0x0008000186014480L,
+		0x0601044820080021L,0x0002000101013100L,0x1400A08108080204L,0x0250401104485410L,
+		0x4820240810142843L,0x0009142A20182200L,0x0848140048440020L,0x2020120000400440L,
+		0x0108840200802003L,0x0009070082009492L,0x020C0C0038424245L,0xCA44005808210410L,
+		0x8011212000500404L,0x2028840510101008L,0x0004042A00041400L,0x0624020080980080L,
+		0x1820410040840040L,0x2201004202050100L,0x402A088A24040224L,0x0242061040002400L,
+		0x90020202400821A0L,0x00C9009004E01002L,0x58C2060202023100L,0x0000012214040800L,
+		0x0210846810100200L,0x0004208081010200L,0x01A4108404442100L,0x8054082C80280106L,
+		0x0004144904104208L,0x00324C0A11104000L,0x1000020231040100L,0x2080001042020004L,
+		0x0544021020288104L,0x1103501408083020L,0x4010451004960002L,0x003010091C44902CL,
+		0x0102402884202000L,0x0480804C00841086L,0x04602C8602210400L,0x0000004000420200L,
+		0x0040000020442C18L,0x4483804089094100L,0x80000B0248020400L,0x0045010808008680L
+	};
+
+	private static final long[] ROOK_MASKS=new long[64];
+	private static final int[] ROOK_SHIFTS=new int[64];
+	private static final long[][] ROOK_ATTACKS=new long[64][];
+
+	private static final long[] BISHOP_MASKS=new long[64];
+	private static final int[] BISHOP_SHIFTS=new int[64];
+	private static final long[][] BISHOP_ATTACKS=new long[64][];
+
+	static
+	{
+		for (int tileCoord=0;tileCoord<64;tileCoord++)
+		{
+			initializeTile(tileCoord,ROOK_DIRECTIONS,ROOK_MAGICS[tileCoord],ROOK_MASKS,ROOK_SHIFTS,ROOK_ATTACKS);
+			initializeTile(tileCoord,BISHOP_DIRECTIONS,BISHOP_MAGICS[tileCoord],BISHOP_MASKS,BISHOP_SHIFTS,BISHOP_ATTACKS);
+		}
+	}
+
+	public static long rookAttacks(final int tileCoord,final long occupancy) //Tiles attacked by a rook on tileCoord, including the first blocker on each ray
+	{
+		return ROOK_ATTACKS[tileCoord][(int)(((occupancy&ROOK_MASKS[tileCoord])*ROOK_MAGICS[tileCoord])>>>ROOK_SHIFTS[tileCoord])];
+	}
+
+	public static long bishopAttacks(final int tileCoord,final long occupancy) //Tiles attacked by a bishop on tileCoord, including the first blocker on each ray
+	{
+		return BISHOP_ATTACKS[tileCoord][(int)(((occupancy&BISHOP_MASKS[tileCoord])*BISHOP_MAGICS[tileCoord])>>>BISHOP_SHIFTS[tileCoord])];
+	}
+
+	public static long queenAttacks(final int tileCoord,final long occupancy) //A queen attacks the union of the rook and bishop rays
+	{
+		return rookAttacks(tileCoord,occupancy)|bishopAttacks(tileCoord,occupancy);
+	}
+
+	private static void initializeTile(final int tileCoord,final int[][] directions,final long magic,final long[] masks,
+									   final int[] shifts,final long[][] attacks) //Fills the attack table of one tile, indexed through its magic
+	{
+		final long mask=calculateRelevantMask(tileCoord,directions);
+		final int shift=64-Long.bitCount(mask);
+		final long[] table=new long[1<<Long.bitCount(mask)];
+		long subset=0L;
+		do //Enumerating every blocker subset of the mask (carry-rippler trick)
+		{
+			final int index=(int)((subset*magic)>>>shift);
+			final long rayAttacks=calculateRayAttacks(tileCoord,subset,directions);
+			if (table[index]!=0L && table[index]!=rayAttacks) //Attacks are never empty, so a filled slot that disagrees means the magic was mistyped
+				throw new IllegalStateException("Magic for tile "+tileCoord+" maps two different attack sets to one index");
+			table[index]=rayAttacks;
+			subset=(subset-mask)&mask;
+		}
+		while (subset!=0L);
+
+		masks[tileCoord]=mask;
+		shifts[tileCoord]=shift;
+		attacks[tileCoord]=table;
+	}
+
+	public static void main(final String[] args) //Offline generator: searches for collision free magics from MAGIC_SEED and prints them as ROOK_MAGICS and BISHOP_MAGICS
+	{
+		final long[] seed= {MAGIC_SEED};
+		final long[] rookMagics=new long[64];
+		final long[] bishopMagics=new long[64];
+		for (int tileCoord=0;tileCoord<64;tileCoord++) //Alternating between the pieces, as the tables above were generated
+		{
+			rookMagics[tileCoord]=findMagic(tileCoord,ROOK_DIRECTIONS,seed);
+			bishopMagics[tileCoord]=findMagic(tileCoord,BISHOP_DIRECTIONS,seed);
+		}
+		System.out.println("ROOK_MAGICS");
+		printMagics(rookMagics);
+		System.out.println("BISHOP_MAGICS");
+		printMagics(bishopMagics);
+	}
+
+	private static void printMagics(final long[] magics)
+	{
+		for (int tileCoord=0;tileCoord<64;tileCoord+=4)
+			System.out.println(String.format("\t\t0x%016XL,0x%016XL,0x%016XL,0x%016XL",magics[tileCoord],magics[tileCoord+1],magics[tileCoord+2],magics[tileCoord+3])+(tileCoord<60?",":""));
+	}
+
+	private static long findMagic(final int tileCoord,final int[][] directions,final long[] seed) //Tries sparse random candidates until one maps every blocker subset of the tile without a harmful collision
+	{
+		final long mask=calculateRelevantMask(tileCoord,directions);
+		final int relevantBits=Long.bitCount(mask);
+		final int subsetCount=1<<relevantBits;
+		final long[] occupancies=new long[subsetCount];
+		final long[] referenceAttacks=new long[subsetCount];
+
+		long subset=0L;
+		for (int i=0;i<subsetCount;i++) //Enumerating every blocker subset of the mask (carry-rippler trick)
+		{
+			occupancies[i]=subset;
+			referenceAttacks[i]=calculateRayAttacks(tileCoord,subset,directions);
+			subset=(subset-mask)&mask;
+		}
+
+		final int shift=64-relevantBits;
+		final long[] table=new long[subsetCount];
+		final int[] usedInAttempt=new int[subsetCount]; //Stamped with the attempt number instead of being cleared for every candidate
+		int attempt=0;
+		while (true)
+		{
+			final long magic=nextSparseRandom(seed);
+			if (Long.bitCount((mask*magic)&0xFF00000000000000L)<6) //Quickly rejecting candidates that spread the mask bits poorly
+				continue;
+
+			attempt++;
+			boolean collision=false;
+			for (int i=0;i<subsetCount && !collision;i++)
+			{
+				final int index=(int)((occupancies[i]*magic)>>>shift);
+				if (usedInAttempt[index]!=attempt)
+				{
+					usedInAttempt[index]=attempt;
+					table[index]=referenceAttacks[i];
+				}
+				else if (table[index]!=referenceAttacks[i]) //Two occupancies with different attacks sharing an index is fatal
+				{
+					collision=true;
+				}
+			}
+
+			if (!collision)
+				return magic;
+		}
+	}
+
+	private static long calculateRelevantMask(final int tileCoord,final int[][] directions) //Ray tiles whose occupancy matters, which excludes the last tile of each ray
+	{
+		long mask=0L;
+		for (final int[] direction:directions)
+		{
+			int row=tileCoord/8+direction[0];
+			int column=tileCoord%8+direction[1];
+			while (isOnBoard(row+direction[0],column+direction[1]))
+			{
+				mask|=BoardUtils.tileBit(row*8+column);
+				row+=direction[0];
+				column+=direction[1];
+			}
+		}
+		return mask;
+	}
+
+	private static long calculateRayAttacks(final int tileCoord,final long occupancy,final int[][] directions) //Slow reference ray walk, only used to build the tables
+	{
+		long rayAttacks=0L;
+		for (final int[] direction:directions)
+		{
+			int row=tileCoord/8+direction[0];
+			int column=tileCoord%8+direction[1];
+			while (isOnBoard(row,column))
+			{
+				final long tileBit=BoardUtils.tileBit(row*8+column);
+				rayAttacks|=tileBit;
+				if ((occupancy&tileBit)!=0)
+					break;
+				row+=direction[0];
+				column+=direction[1];
+			}
+		}
+		return rayAttacks;
+	}
+
+	private static boolean isOnBoard(final int row,final int column)
+	{
+		return row>=0 && row<8 && column>=0 && column<8;
+	}
+
+	private static long nextSparseRandom(final long[] seed) //Magic candidates with few set bits are far more likely to work
+	{
+		return nextRandom(seed)&nextRandom(seed)&nextRandom(seed);
+	}
+
+	private static long nextRandom(final long[] seed) //xorshift64* generator
+	{
+		long x=seed[0];
+		x^=x>>>12;
+		x^=x<<25;
+		x^=x>>>27;
+		seed[0]=x;
+		return x*0x2545F4914F6CDD1DL;
+	}
+}
@@ -92,23 +92,26 @@ public abstract class Move
 		return this.board;
 	}
 	
+	long placementZobristKey() //XOR of the piece keys this move takes off and puts on the board
+	{
+		return Zobrist.pieceKey(this.movedPiece,getCurrentCoord())^Zobrist.pieceKey(this.movedPiece,this.destinationCoord);
+	}
+	
+	final long calculateZobristKey(final Pawn enPassantPawn) //Key of the board after this move, updated from the current key instead of rehashing every piece
+	{
+		final int castlingRights=this.board.getCastlingRights();
+		final int newCastlingRights=castlingRights&BoardUtils.CASTLING_MASKS[getCurrentCoord()]&BoardUtils.CASTLING_MASKS[this.destinationCoord];
+		return this.board.zobristKey()^placementZobristKey()^Zobrist.SIDE_TO_MOVE_KEY^
+			   Zobrist.castlingKey(castlingRights)^Zobrist.castlingKey(newCastlingRights)^
+			   Zobrist.enPassantKey(this.board.getEnPassantPawn())^Zobrist.enPassantKey(enPassantPawn);
+	}
+	
 	public Board execute() {
-		final Builder builder=new Builder();
-		for (final Piece piece:this.board.currentPlayer().getActivePieces())  //Looping through all current player's pieces and setting the unmoved ones
-		{
-			if (!this.movedPiece.equals(piece))
-			{
-				builder.setPiece(piece);
-			}
-		}
-		
-		for (final Piece piece:this.board.currentPlayer().getOpponent().getActivePieces()) //Setting all of the opponent's pieces
-		{
-			builder.setPiece(piece);
-		}
-		
-		builder.setPiece(this.movedPiece.movePiece(this));
+		final Builder builder=new Builder(this.board); //Copying the current position and only rewriting the tiles this move touches
+		builder.clearTile(getCurrentCoord());
+		builder.setPiece(this.movedPiece.movePiece(this)); //Replaces a captured piece on the destination tile
 		builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());   //Setting the move maker to opponent
+		builder.setZobristKey(calculateZobristKey(null));
 		return builder.build();
 	}
 	
@@ -175,6 +178,12 @@ public abstract class Move
 			return this.attackedPiece;
 		}
 		
+		@Override
+		long placementZobristKey() //The captured piece also leaves the board (from its own tile, which differs for en passant)
+		{
+			return super.placementZobristKey()^Zobrist.pieceKey(this.attackedPiece,this.attackedPiece.getPiecePosition());
+		}
+		
 		@Override
 		public int hashCode()
 		{
@@ -255,23 +264,12 @@ public abstract class Move
 		@Override
 		public Board execute()
 		{
-			final Builder builder=new Builder();
-			for (final Piece piece:this.board.currentPlayer().getActivePieces())
-			{
-				if (!this.movedPiece.equals(piece))
-				{
-					builder.setPiece(piece);
-				}
-			}
-			for (final Piece piece:this.board.currentPlayer().getOpponent().getActivePieces())
-			{
-				if (!piece.equals(this.attackedPiece))
-				{
-					builder.setPiece(piece);
-				}
-			}
+			final Builder builder=new Builder(this.board);
+			builder.clearTile(getCurrentCoord());
+			builder.clearTile(this.attackedPiece.getPiecePosition()); //The captured pawn is beside the destination tile
 			builder.setPiece(this.movedPiece.movePiece(this));
 			builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
+			builder.setZobristKey(calculateZobristKey(null));
 			return builder.build();
 		}
 	}
@@ -296,31 +294,32 @@ public abstract class Move
 		@Override
 		public boolean equals(final Object other)
 		{
-			return Objects.equals(decoratedMove, this.decoratedMove) && Objects.equals(promotedPawn, this.promotedPawn);
+			if (this==other)
+				return true;
+			if (!(other instanceof PawnPromotion))
+				return false;
+			final PawnPromotion otherMove=(PawnPromotion)other;
+			return Objects.equals(this.decoratedMove,otherMove.decoratedMove) && Objects.equals(this.promotedPawn,otherMove.promotedPawn);
 		}
 		
 		@Override
 		public Board execute()
 		{
-			final Board pawnMovedBoard=this.decoratedMove.execute();
-			final Board.Builder builder=new Builder();
-			for (final Piece piece:pawnMovedBoard.currentPlayer().getActivePieces())
-			{
-				if (!(this.promotedPawn.equals(piece)))
-				{
-					builder.setPiece(piece);
-				}
-			}
-			
-			for (final Piece piece:pawnMovedBoard.currentPlayer().getOpponent().getActivePieces())
-			{
-				builder.setPiece(piece);
-			}
+			final Builder builder=new Builder(this.board); //Straight to the queen, without building the board with the pawn on the last rank first
+			builder.clearTile(getCurrentCoord());
 			builder.setPiece(this.promotedPawn.getPromotionPiece().movePiece(this));
-			builder.setMoveMaker(pawnMovedBoard.currentPlayer().getAlliance());
+			builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
+			builder.setZobristKey(calculateZobristKey(null));
 			return builder.build();
 		}
 		
+		@Override
+		long placementZobristKey() //The pawn arriving on the last rank is swapped for a queen
+		{
+			return this.decoratedMove.placementZobristKey()^Zobrist.pieceKey(this.promotedPawn,this.destinationCoord)^
+				   Zobrist.pieceKey(BoardUtils.bitboardIndex(this.promotedPawn.getPieceAlliance(),Piece.PieceType.QUEEN),this.destinationCoord);
+		}
+		
 		@Override
 		public boolean isAttack()
 		{
@@ -351,23 +350,13 @@ public abstract class Move
 		@Override
         public Board execute()
 		{
-            final Builder builder=new Builder();
-            
-            for(final Piece piece: this.board.currentPlayer().getActivePieces())
-            {
-                if(!this.movedPiece.equals(piece)){
-                    builder.setPiece(piece);
-                }
-            }
-            
-            for(final Piece piece: this.board.currentPlayer().getOpponent().getActivePieces())
-            {
-                builder.setPiece(piece);
-            }
+            final Builder builder=new Builder(this.board);
+            builder.clearTile(getCurrentCoord());
             final Pawn movedPawn=(Pawn)this.movedPiece.movePiece(this);
             builder.setPiece(movedPawn);
             builder.setEnPassantPawn(movedPawn);
             builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
+            builder.setZobristKey(calculateZobristKey(movedPawn));
             return builder.build();
         }
 		
@@ -404,22 +393,22 @@ public abstract class Move
 			return true;
 		}
 		
+		@Override
+		long placementZobristKey() //The rook moves along with the king
+		{
+			return super.placementZobristKey()^Zobrist.pieceKey(this.castleRook,this.castleRookStart)^Zobrist.pieceKey(this.castleRook,this.castleRookDestination);
+		}
+		
 		@Override
 		public Board execute()
 		{
-			final Builder builder=new Builder();
-			for (final Piece piece:this.board.currentPlayer().getActivePieces())
-			{
-				if (this.movedPiece.equals(piece) && !this.castleRook.equals(piece))
-					builder.setPiece(piece);
-			}
-			
-			for (final Piece piece:this.board.currentPlayer().getOpponent().getActivePieces())
-				builder.setPiece(piece);
-			
+			final Builder builder=new Builder(this.board);
+			builder.clearTile(getCurrentCoord());
+			builder.clearTile(this.castleRookStart);
 			builder.setPiece(this.movedPiece.movePiece(this));
-			builder.setPiece(new Rook(this.castleRook.getPieceAlliance(),this.castleRookDestination));
+			builder.setPiece(Piece.of(Piece.PieceType.ROOK,this.castleRook.getPieceAlliance(),this.castleRookDestination,false));
 			builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
+			builder.setZobristKey(calculateZobristKey(null));
 			return builder.build();
 		}
 		
@@ -508,6 +497,12 @@ public abstract class Move
 		{
 			return -1;
 		}
+		
+		@Override
+		public String toString() //Printed when a search finds no move, Move.hashCode would trip over the missing piece
+		{
+			return "NullMove";
+		}
 	}
 	
 	public static class MoveFactory 
@@ -519,14 +514,66 @@ public abstract class Move
 		
 		public static Move createMove(final Board board, final int currentCoord, final int destinationCoord)
 		{
-			for (final Move move:board.currentPlayer().getLegalMoves())
+			final Move move=board.currentPlayer().getLegalMove(currentCoord,destinationCoord);
+			return move!=null?move:NULL_MOVE;
+		}
+		
+		public static int encodeMove(final Move move) //Packs a Move into its MoveEncoding int
+		{
+			if (move==NULL_MOVE)
+				return MoveEncoding.NULL_MOVE;
+			
+			int flags=0;
+			if (move.isCastlingMove())
+				flags|=MoveEncoding.CASTLE_FLAG;
+			if (move instanceof PawnEnPassantAttackMove)
+				flags|=MoveEncoding.EN_PASSANT_FLAG;
+			if (move instanceof PawnPromotion)
+				flags|=MoveEncoding.PROMOTION_FLAG;
+			if (move instanceof PawnJump)
+				flags|=MoveEncoding.PAWN_JUMP_FLAG;
+			
+			final Piece attackedPiece=move.isAttack()?move.getAttackedPiece():null;
+			return MoveEncoding.encode(move.getCurrentCoord(),move.getDestinationCoord(),move.getMovedPiece().getPieceType(),
+									   attackedPiece==null?null:attackedPiece.getPieceType(),flags);
+		}
+		
+		public static Move createMove(final Board board,final int encodedMove) //Rebuilds the Move object for an encoded move generated on this board
+		{
+			if (encodedMove==MoveEncoding.NULL_MOVE)
+				return NULL_MOVE;
+			
+			final int currentCoord=MoveEncoding.getCurrentCoord(encodedMove);
+			final int destinationCoord=MoveEncoding.getDestinationCoord(encodedMove);
+			final Piece movedPiece=board.getPiece(currentCoord);
+			if (movedPiece==null)
+				return NULL_MOVE;
+			
+			if (MoveEncoding.isCastle(encodedMove))
+			{
+				final boolean isKingSide=destinationCoord>currentCoord;
+				final int rookStart=isKingSide?currentCoord+3:currentCoord-4;
+				final int rookDestination=isKingSide?currentCoord+1:currentCoord-1;
+				final Rook castleRook=(Rook)board.getPiece(rookStart);
+				return isKingSide?new KingSideCastleMove(board,movedPiece,destinationCoord,castleRook,rookStart,rookDestination):
+								  new QueenSideCastleMove(board,movedPiece,destinationCoord,castleRook,rookStart,rookDestination);
+			}
+			if (MoveEncoding.isEnPassant(encodedMove))
+				return new PawnEnPassantAttackMove(board,movedPiece,destinationCoord,board.getEnPassantPawn());
+			if (MoveEncoding.isPawnJump(encodedMove))
+				return new PawnJump(board,movedPiece,destinationCoord);
+			
+			final Piece attackedPiece=MoveEncoding.isCapture(encodedMove)?board.getPiece(destinationCoord):null;
+			if (movedPiece.getPieceType()==Piece.PieceType.PAWN)
 			{
-				if (move.getCurrentCoord()==currentCoord && move.getDestinationCoord()==destinationCoord)
-				{
-					return move;
-				}
+				final Move pawnMove=attackedPiece!=null?new PawnAttackMove(board,movedPiece,destinationCoord,attackedPiece):
+														new PawnMove(board,movedPiece,destinationCoord);
+				return MoveEncoding.isPromotion(encodedMove)?new PawnPromotion(pawnMove):pawnMove;
 			}
-			return NULL_MOVE;
+			if (attackedPiece==null)
+				return new MajorMove(board,movedPiece,destinationCoord);
+			return movedPiece.getPieceType().isKing()?new AttackMove(board,movedPiece,destinationCoord,attackedPiece): //Kings generate plain AttackMoves
+													  new MajorAttackMove(board,movedPiece,destinationCoord,attackedPiece);
 		}
 	}
 }
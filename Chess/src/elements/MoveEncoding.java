@@ -0,0 +1,101 @@
+package elements;
+
+import elements.Piece.PieceType;
+
+public final class MoveEncoding //Packs a move into one int so move lists need no objects and never hold on to a Board
+{
+	private MoveEncoding() //Stops people from trying to instantiate this class
+	{
+		throw new RuntimeException("Cannot instantiate this class");
+	}
+
+	//Bits 0-5 current tile, 6-11 destination tile, 12-14 moved piece type, 15-17 captured piece type + 1 (0 for no capture), 18-21 flags
+	private static final int TILE_MASK=0x3F;
+	private static final int TYPE_MASK=0x7;
+	private static final int DESTINATION_SHIFT=6;
+	private static final int MOVED_TYPE_SHIFT=12;
+	private static final int CAPTURED_TYPE_SHIFT=15;
+
+	public static final int CASTLE_FLAG=1<<18;
+	public static final int EN_PASSANT_FLAG=1<<19;
+	public static final int PROMOTION_FLAG=1<<20;
+	public static final int PAWN_JUMP_FLAG=1<<21;
+
+	public static final int NULL_MOVE=0; //a8 to a8 can never be a real move
+
+	private static final PieceType[] PIECE_TYPES=PieceType.values();
+
+	public static int encode(final int currentCoord,final int destinationCoord,final PieceType movedType,final PieceType capturedType,final int flags)
+	{
+		return encode(currentCoord,destinationCoord,movedType.ordinal(),capturedType==null?-1:capturedType.ordinal(),flags);
+	}
+
+	public static int encode(final int currentCoord,final int destinationCoord,final int movedType,final int capturedType,final int flags) //Piece types as ordinals, capturedType -1 for none
+	{
+		return currentCoord|destinationCoord<<DESTINATION_SHIFT|movedType<<MOVED_TYPE_SHIFT|(capturedType+1)<<CAPTURED_TYPE_SHIFT|flags;
+	}
+
+	public static int getCurrentCoord(final int move)
+	{
+		return move&TILE_MASK;
+	}
+
+	public static int getDestinationCoord(final int move)
+	{
+		return (move>>>DESTINATION_SHIFT)&TILE_MASK;
+	}
+
+	public static int getMovedType(final int move) //Ordinal of the moved piece's PieceType
+	{
+		return (move>>>MOVED_TYPE_SHIFT)&TYPE_MASK;
+	}
+
+	public static int getCapturedType(final int move) //Ordinal of the captured piece's PieceType, or -1 for a quiet move
+	{
+		return ((move>>>CAPTURED_TYPE_SHIFT)&TYPE_MASK)-1;
+	}
+
+	public static PieceType getMovedPieceType(final int move)
+	{
+		return PIECE_TYPES[getMovedType(move)];
+	}
+
+	public static PieceType getCapturedPieceType(final int move)
+	{
+		final int capturedType=getCapturedType(move);
+		return capturedType==-1?null:PIECE_TYPES[capturedType];
+	}
+
+	public static boolean isCapture(final int move)
+	{
+		return ((move>>>CAPTURED_TYPE_SHIFT)&TYPE_MASK)!=0;
+	}
+
+	public static boolean isCastle(final int move)
+	{
+		return (move&CASTLE_FLAG)!=0;
+	}
+
+	public static boolean isEnPassant(final int move)
+	{
+		return (move&EN_PASSANT_FLAG)!=0;
+	}
+
+	public static boolean isPromotion(final int move)
+	{
+		return (move&PROMOTION_FLAG)!=0;
+	}
+
+	public static boolean isPawnJump(final int move)
+	{
+		return (move&PAWN_JUMP_FLAG)!=0;
+	}
+
+	public static String toString(final int move) //Coordinate notation such as e2e4, with =Q for promotions
+	{
+		if (move==NULL_MOVE)
+			return "null";
+		return BoardUtils.getPositionAtCoordinate(getCurrentCoord(move))+BoardUtils.getPositionAtCoordinate(getDestinationCoord(move))+
+			   (isPromotion(move)?"=Q":"");
+	}
+}
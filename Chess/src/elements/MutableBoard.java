@@ -0,0 +1,492 @@
+package elements;
+
+import java.util.Arrays;
+
+import elements.Piece.PieceType;
+
+public final class MutableBoard //Search position that makes and unmakes moves in place, instead of building a new Board for every move like Move.execute
+{
+	public static final int EMPTY=-1; //Piece code of an empty tile
+
+	private static final PieceType[] PIECE_TYPES=PieceType.values(); //Cached so hot paths don't clone the values() array
+	private static final Alliance[] ALLIANCES=Alliance.values();
+	private static final int INITIAL_STACK_SIZE=128;
+
+	private final long[] pieceBitboards=new long[BoardUtils.NUM_BITBOARDS];
+	private final long[] allianceOccupancy=new long[ALLIANCES.length];
+	private long occupancy;
+	private final int[] mailbox=new int[64]; //Bitboard index of the piece on each tile, or EMPTY
+
+	private Alliance sideToMove;
+	private int castlingRights;
+	private int enPassantTile; //Tile of the pawn that just jumped two squares (like Board.getEnPassantPawn), or -1
+	private long zobristKey; //Kept equal to Board.zobristKey() of the same position
+
+	private int[] undoMoves=new int[INITIAL_STACK_SIZE];
+	private int[] undoCastlingRights=new int[INITIAL_STACK_SIZE];
+	private int[] undoEnPassantTiles=new int[INITIAL_STACK_SIZE];
+	private long[] undoZobristKeys=new long[INITIAL_STACK_SIZE];
+	private int undoCount;
+	private final IntMoveList castleScratch=new IntMoveList(2); //Reused by isPseudoLegal to check castles against the real castling rules
+
+	public MutableBoard(final Board board) //Copies an immutable Board, including its castling rights and en passant pawn
+	{
+		Arrays.fill(this.mailbox,EMPTY);
+		for (final Piece piece:board.getWhitePieces())
+			putPiece(BoardUtils.bitboardIndex(piece),piece.getPiecePosition());
+		for (final Piece piece:board.getBlackPieces())
+			putPiece(BoardUtils.bitboardIndex(piece),piece.getPiecePosition());
+
+		this.sideToMove=board.currentPlayer().getAlliance();
+		this.castlingRights=board.getCastlingRights();
+		this.enPassantTile=board.getEnPassantPawn()!=null?board.getEnPassantPawn().getPiecePosition():-1;
+		this.zobristKey^=Zobrist.sideToMoveKey(this.sideToMove)^Zobrist.castlingKey(this.castlingRights)^Zobrist.enPassantKey(this.enPassantTile);
+	}
+
+	public Alliance getSideToMove()
+	{
+		return this.sideToMove;
+	}
+
+	public int getPieceCode(final int tileCoord) //Bitboard index of the piece on the tile, or EMPTY
+	{
+		return this.mailbox[tileCoord];
+	}
+
+	public long getPieceBitboard(final Alliance alliance,final PieceType pieceType)
+	{
+		return this.pieceBitboards[BoardUtils.bitboardIndex(alliance,pieceType)];
+	}
+
+	public long getAllianceOccupancy(final Alliance alliance)
+	{
+		return this.allianceOccupancy[alliance.ordinal()];
+	}
+
+	public long getOccupancy()
+	{
+		return this.occupancy;
+	}
+
+	public int getCastlingRights()
+	{
+		return this.castlingRights;
+	}
+
+	public int getEnPassantTile()
+	{
+		return this.enPassantTile;
+	}
+
+	public long zobristKey()
+	{
+		return this.zobristKey;
+	}
+	
+	public int getPly() //Number of moves currently on the undo stack
+	{
+		return this.undoCount;
+	}
+
+	public boolean isInCheck() //Whether the side to move has its king attacked
+	{
+		return isKingAttacked(this.sideToMove);
+	}
+
+	private boolean isKingAttacked(final Alliance alliance)
+	{
+		final long king=this.pieceBitboards[BoardUtils.bitboardIndex(alliance,PieceType.KING)];
+		return isTileAttacked(Long.numberOfTrailingZeros(king),opponentOf(alliance));
+	}
+
+	public boolean isTileAttacked(final int tileCoord,final Alliance attacker) //Probes outwards from the tile with the leaper tables and slider rays
+	{
+		return BoardUtils.attackersOf(this.pieceBitboards,tileCoord,attacker,this.occupancy)!=0;
+	}
+
+	public void generateMoves(final IntMoveList moves) //Appends every pseudo-legal move in MoveEncoding form
+	{
+		generateCaptures(moves);
+		generateQuiets(moves);
+	}
+
+	public void generateCaptures(final IntMoveList moves) //Appends pseudo-legal captures, en passant and promotions, the moves a search wants to try first
+	{
+		final int side=this.sideToMove.ordinal();
+		final int base=side*BoardUtils.NUM_PIECE_TYPES;
+		final long enemyPieces=this.allianceOccupancy[1-side];
+		final long emptyTiles=~this.occupancy;
+		final int pawn=PieceType.PAWN.ordinal();
+
+		long pawns=this.pieceBitboards[base+pawn];
+		while (pawns!=0)
+		{
+			final int from=Long.numberOfTrailingZeros(pawns);
+			pawns&=pawns-1;
+			final long singlePush=BoardUtils.PAWN_PUSHES[side][from]&emptyTiles;
+			if (singlePush!=0 && this.sideToMove.isPawnPromotionSquare(Long.numberOfTrailingZeros(singlePush))) //Quiet promotions are sorted in with the captures
+				addPawnMove(moves,from,Long.numberOfTrailingZeros(singlePush),-1);
+			long attacks=BoardUtils.PAWN_ATTACKS[side][from]&enemyPieces;
+			while (attacks!=0)
+			{
+				final int to=Long.numberOfTrailingZeros(attacks);
+				attacks&=attacks-1;
+				addPawnMove(moves,from,to,this.mailbox[to]%BoardUtils.NUM_PIECE_TYPES);
+			}
+			if (this.enPassantTile!=-1)
+			{
+				final int enPassantDestination=this.enPassantTile+this.sideToMove.getdirection()*8;
+				if ((BoardUtils.PAWN_ATTACKS[side][from]&BoardUtils.tileBit(enPassantDestination))!=0)
+					moves.add(MoveEncoding.encode(from,enPassantDestination,pawn,pawn,MoveEncoding.EN_PASSANT_FLAG));
+			}
+		}
+
+		for (int pieceType=PieceType.KNIGHT.ordinal();pieceType<=PieceType.KING.ordinal();pieceType++)
+		{
+			long pieces=this.pieceBitboards[base+pieceType];
+			while (pieces!=0)
+			{
+				final int from=Long.numberOfTrailingZeros(pieces);
+				pieces&=pieces-1;
+				long destinations=calculateAttacks(pieceType,from)&enemyPieces;
+				while (destinations!=0)
+				{
+					final int to=Long.numberOfTrailingZeros(destinations);
+					destinations&=destinations-1;
+					moves.add(MoveEncoding.encode(from,to,pieceType,this.mailbox[to]%BoardUtils.NUM_PIECE_TYPES,0));
+				}
+			}
+		}
+	}
+
+	public void generateQuiets(final IntMoveList moves) //Appends the pseudo-legal moves generateCaptures leaves out, castles included
+	{
+		final int side=this.sideToMove.ordinal();
+		final int base=side*BoardUtils.NUM_PIECE_TYPES;
+		final long emptyTiles=~this.occupancy;
+		final int pawn=PieceType.PAWN.ordinal();
+
+		long pawns=this.pieceBitboards[base+pawn];
+		while (pawns!=0)
+		{
+			final int from=Long.numberOfTrailingZeros(pawns);
+			pawns&=pawns-1;
+			final long singlePush=BoardUtils.PAWN_PUSHES[side][from]&emptyTiles;
+			if (singlePush!=0)
+			{
+				final int to=Long.numberOfTrailingZeros(singlePush);
+				if (!this.sideToMove.isPawnPromotionSquare(to))
+					moves.add(MoveEncoding.encode(from,to,pawn,-1,0));
+				final long doublePush=BoardUtils.PAWN_JUMPS[side][from]&emptyTiles;
+				if (doublePush!=0)
+					moves.add(MoveEncoding.encode(from,Long.numberOfTrailingZeros(doublePush),pawn,-1,MoveEncoding.PAWN_JUMP_FLAG));
+			}
+		}
+
+		for (int pieceType=PieceType.KNIGHT.ordinal();pieceType<=PieceType.KING.ordinal();pieceType++)
+		{
+			long pieces=this.pieceBitboards[base+pieceType];
+			while (pieces!=0)
+			{
+				final int from=Long.numberOfTrailingZeros(pieces);
+				pieces&=pieces-1;
+				long destinations=calculateAttacks(pieceType,from)&emptyTiles;
+				while (destinations!=0)
+				{
+					final int to=Long.numberOfTrailingZeros(destinations);
+					destinations&=destinations-1;
+					moves.add(MoveEncoding.encode(from,to,pieceType,-1,0));
+				}
+			}
+		}
+
+		generateCastles(moves);
+	}
+
+	public boolean isPseudoLegal(final int move) //Whether the move, e.g. a hash move or killer from another position, is one the generators would produce here
+	{
+		if (move==MoveEncoding.NULL_MOVE)
+			return false;
+		final int from=MoveEncoding.getCurrentCoord(move);
+		final int to=MoveEncoding.getDestinationCoord(move);
+		final int side=this.sideToMove.ordinal();
+		final int movedType=MoveEncoding.getMovedType(move);
+		if (this.mailbox[from]!=side*BoardUtils.NUM_PIECE_TYPES+movedType)
+			return false;
+
+		if (MoveEncoding.isCastle(move))
+		{
+			this.castleScratch.clear();
+			generateCastles(this.castleScratch);
+			return this.castleScratch.contains(move);
+		}
+
+		final long destinationBit=BoardUtils.tileBit(to);
+		final int pawn=PieceType.PAWN.ordinal();
+		if (MoveEncoding.isEnPassant(move))
+			return this.enPassantTile!=-1 && to==this.enPassantTile+this.sideToMove.getdirection()*8 &&
+				   (BoardUtils.PAWN_ATTACKS[side][from]&destinationBit)!=0 && move==MoveEncoding.encode(from,to,pawn,pawn,MoveEncoding.EN_PASSANT_FLAG);
+
+		final int target=this.mailbox[to];
+		if (target!=EMPTY && target/BoardUtils.NUM_PIECE_TYPES==side)
+			return false;
+		int flags=0;
+		final long reachableTiles;
+		if (movedType==pawn)
+		{
+			if (this.sideToMove.isPawnPromotionSquare(to))
+				flags=MoveEncoding.PROMOTION_FLAG;
+			if (target!=EMPTY)
+			{
+				reachableTiles=BoardUtils.PAWN_ATTACKS[side][from];
+			}
+			else if ((BoardUtils.PAWN_JUMPS[side][from]&destinationBit)!=0) //The skipped tile has to be empty too
+			{
+				reachableTiles=(BoardUtils.PAWN_PUSHES[side][from]&this.occupancy)==0?destinationBit:0L;
+				flags=MoveEncoding.PAWN_JUMP_FLAG;
+			}
+			else
+			{
+				reachableTiles=BoardUtils.PAWN_PUSHES[side][from];
+			}
+		}
+		else
+		{
+			reachableTiles=calculateAttacks(movedType,from);
+		}
+		return (reachableTiles&destinationBit)!=0 && move==MoveEncoding.encode(from,to,movedType,target==EMPTY?-1:target%BoardUtils.NUM_PIECE_TYPES,flags);
+	}
+
+	private void addPawnMove(final IntMoveList moves,final int from,final int to,final int capturedType) //Pawns reaching the last rank always promote to a queen, as in Pawn.getPromotionPiece
+	{
+		final int flags=this.sideToMove.isPawnPromotionSquare(to)?MoveEncoding.PROMOTION_FLAG:0;
+		moves.add(MoveEncoding.encode(from,to,PieceType.PAWN.ordinal(),capturedType,flags));
+	}
+
+	private long calculateAttacks(final int pieceType,final int from) //Attack set of a non-pawn piece type standing on a tile
+	{
+		switch (PIECE_TYPES[pieceType])
+		{
+			case KNIGHT: return BoardUtils.KNIGHT_ATTACKS[from];
+			case BISHOP: return MagicBitboards.bishopAttacks(from,this.occupancy);
+			case ROOK: return MagicBitboards.rookAttacks(from,this.occupancy);
+			case QUEEN: return MagicBitboards.queenAttacks(from,this.occupancy);
+			case KING: return BoardUtils.KING_ATTACKS[from];
+			default: throw new RuntimeException("Pawns have no fixed attack set");
+		}
+	}
+
+	private void generateCastles(final IntMoveList moves) //Same rules as WhitePlayer/BlackPlayer.calculateKingCastles: empty path, not in check, no attacked transit tile
+	{
+		final Alliance opponent=opponentOf(this.sideToMove);
+		if (this.sideToMove.isWhite())
+		{
+			if ((this.castlingRights&(BoardUtils.WHITE_KING_SIDE_CASTLE|BoardUtils.WHITE_QUEEN_SIDE_CASTLE))==0 || isTileAttacked(60,opponent))
+				return;
+			if ((this.castlingRights&BoardUtils.WHITE_KING_SIDE_CASTLE)!=0 && isEmpty(61) && isEmpty(62) &&
+				!isTileAttacked(61,opponent) && !isTileAttacked(62,opponent))
+				moves.add(createCastle(60,62));
+			if ((this.castlingRights&BoardUtils.WHITE_QUEEN_SIDE_CASTLE)!=0 && isEmpty(57) && isEmpty(58) && isEmpty(59) &&
+				!isTileAttacked(58,opponent) && !isTileAttacked(59,opponent))
+				moves.add(createCastle(60,58));
+		}
+		else
+		{
+			if ((this.castlingRights&(BoardUtils.BLACK_KING_SIDE_CASTLE|BoardUtils.BLACK_QUEEN_SIDE_CASTLE))==0 || isTileAttacked(4,opponent))
+				return;
+			if ((this.castlingRights&BoardUtils.BLACK_KING_SIDE_CASTLE)!=0 && isEmpty(5) && isEmpty(6) &&
+				!isTileAttacked(5,opponent) && !isTileAttacked(6,opponent))
+				moves.add(createCastle(4,6));
+			if ((this.castlingRights&BoardUtils.BLACK_QUEEN_SIDE_CASTLE)!=0 && isEmpty(1) && isEmpty(2) && isEmpty(3) &&
+				!isTileAttacked(2,opponent) && !isTileAttacked(3,opponent))
+				moves.add(createCastle(4,2));
+		}
+	}
+
+	private static int createCastle(final int kingStart,final int kingDestination)
+	{
+		return MoveEncoding.encode(kingStart,kingDestination,PieceType.KING.ordinal(),-1,MoveEncoding.CASTLE_FLAG);
+	}
+
+	private boolean isEmpty(final int tileCoord)
+	{
+		return this.mailbox[tileCoord]==EMPTY;
+	}
+
+	public boolean makeMove(final Move move) //Convenience for strategies that start from the immutable Board's Move objects
+	{
+		return makeMove(Move.MoveFactory.encodeMove(move));
+	}
+
+	public boolean makeMove(final int move) //Plays a pseudo-legal MoveEncoding move in place. Returns false, leaving the board unchanged, if it would leave the mover's king attacked
+	{
+		final int from=MoveEncoding.getCurrentCoord(move);
+		final int to=MoveEncoding.getDestinationCoord(move);
+		final int movedPiece=this.mailbox[from];
+
+		ensureStackCapacity();
+		this.undoMoves[this.undoCount]=move;
+		this.undoCastlingRights[this.undoCount]=this.castlingRights;
+		this.undoEnPassantTiles[this.undoCount]=this.enPassantTile;
+		this.undoZobristKeys[this.undoCount]=this.zobristKey;
+		this.undoCount++;
+
+		if (MoveEncoding.isEnPassant(move)) //The captured pawn is beside the moving pawn, not on the destination tile
+			removePiece(this.enPassantTile);
+		else if (MoveEncoding.isCapture(move))
+			removePiece(to);
+
+		removePiece(from);
+		putPiece(MoveEncoding.isPromotion(move)?BoardUtils.bitboardIndex(this.sideToMove,PieceType.QUEEN):movedPiece,to);
+
+		if (MoveEncoding.isCastle(move)) //The rook jumps over the king
+		{
+			final int rookStart=to>from?from+3:from-4;
+			final int rookDestination=to>from?from+1:from-1;
+			final int rook=this.mailbox[rookStart];
+			removePiece(rookStart);
+			putPiece(rook,rookDestination);
+		}
+
+		final int newEnPassantTile=MoveEncoding.isPawnJump(move)?to:-1;
+		final int newCastlingRights=this.castlingRights&BoardUtils.CASTLING_MASKS[from]&BoardUtils.CASTLING_MASKS[to];
+		this.zobristKey^=Zobrist.SIDE_TO_MOVE_KEY^
+						 Zobrist.enPassantKey(this.enPassantTile)^Zobrist.enPassantKey(newEnPassantTile)^
+						 Zobrist.castlingKey(this.castlingRights)^Zobrist.castlingKey(newCastlingRights); //Piece keys were already updated by removePiece/putPiece
+		this.enPassantTile=newEnPassantTile;
+		this.castlingRights=newCastlingRights;
+
+		final Alliance mover=this.sideToMove;
+		this.sideToMove=opponentOf(mover);
+		if (isKingAttacked(mover))
+		{
+			unmakeMove();
+			return false;
+		}
+		return true;
+	}
+
+	public void makeNullMove() //Passes the turn without moving, for null-move pruning. Only valid when the side to move is not in check
+	{
+		ensureStackCapacity();
+		this.undoMoves[this.undoCount]=MoveEncoding.NULL_MOVE;
+		this.undoCastlingRights[this.undoCount]=this.castlingRights;
+		this.undoEnPassantTiles[this.undoCount]=this.enPassantTile;
+		this.undoZobristKeys[this.undoCount]=this.zobristKey;
+		this.undoCount++;
+
+		this.zobristKey^=Zobrist.SIDE_TO_MOVE_KEY^Zobrist.enPassantKey(this.enPassantTile)^Zobrist.enPassantKey(-1); //Passing gives up any en passant capture
+		this.enPassantTile=-1;
+		this.sideToMove=opponentOf(this.sideToMove);
+	}
+
+	public void unmakeNullMove()
+	{
+		this.undoCount--;
+		this.sideToMove=opponentOf(this.sideToMove);
+		this.enPassantTile=this.undoEnPassantTiles[this.undoCount];
+		this.zobristKey=this.undoZobristKeys[this.undoCount];
+	}
+
+	public boolean hasNonPawnMaterial(final Alliance alliance) //Whether the side has a piece besides pawns and king, without which passing is often its best move (zugzwang)
+	{
+		return (this.allianceOccupancy[alliance.ordinal()]&~getPieceBitboard(alliance,PieceType.PAWN)&~getPieceBitboard(alliance,PieceType.KING))!=0;
+	}
+
+	public void unmakeMove() //Restores the position from before the last successful makeMove
+	{
+		this.undoCount--;
+		final int move=this.undoMoves[this.undoCount];
+		final int from=MoveEncoding.getCurrentCoord(move);
+		final int to=MoveEncoding.getDestinationCoord(move);
+
+		this.sideToMove=opponentOf(this.sideToMove);
+		this.castlingRights=this.undoCastlingRights[this.undoCount];
+		this.enPassantTile=this.undoEnPassantTiles[this.undoCount];
+
+		if (MoveEncoding.isCastle(move))
+		{
+			final int rookStart=to>from?from+3:from-4;
+			final int rookDestination=to>from?from+1:from-1;
+			final int rook=this.mailbox[rookDestination];
+			removePiece(rookDestination);
+			putPiece(rook,rookStart);
+		}
+
+		removePiece(to);
+		putPiece(BoardUtils.bitboardIndex(this.sideToMove,MoveEncoding.getMovedPieceType(move)),from);
+
+		if (MoveEncoding.isCapture(move))
+		{
+			final int capturedPiece=(1-this.sideToMove.ordinal())*BoardUtils.NUM_PIECE_TYPES+MoveEncoding.getCapturedType(move);
+			putPiece(capturedPiece,MoveEncoding.isEnPassant(move)?this.enPassantTile:to);
+		}
+		this.zobristKey=this.undoZobristKeys[this.undoCount];
+	}
+
+	private void putPiece(final int pieceCode,final int tileCoord)
+	{
+		final long tileBit=BoardUtils.tileBit(tileCoord);
+		this.pieceBitboards[pieceCode]|=tileBit;
+		this.allianceOccupancy[pieceCode/BoardUtils.NUM_PIECE_TYPES]|=tileBit;
+		this.occupancy|=tileBit;
+		this.mailbox[tileCoord]=pieceCode;
+		this.zobristKey^=Zobrist.pieceKey(pieceCode,tileCoord);
+	}
+
+	private void removePiece(final int tileCoord)
+	{
+		final int pieceCode=this.mailbox[tileCoord];
+		final long tileBit=BoardUtils.tileBit(tileCoord);
+		this.pieceBitboards[pieceCode]&=~tileBit;
+		this.allianceOccupancy[pieceCode/BoardUtils.NUM_PIECE_TYPES]&=~tileBit;
+		this.occupancy&=~tileBit;
+		this.mailbox[tileCoord]=EMPTY;
+		this.zobristKey^=Zobrist.pieceKey(pieceCode,tileCoord);
+	}
+
+	private void ensureStackCapacity()
+	{
+		if (this.undoCount==this.undoMoves.length)
+		{
+			final int newLength=this.undoMoves.length*2;
+			this.undoMoves=Arrays.copyOf(this.undoMoves,newLength);
+			this.undoCastlingRights=Arrays.copyOf(this.undoCastlingRights,newLength);
+			this.undoEnPassantTiles=Arrays.copyOf(this.undoEnPassantTiles,newLength);
+			this.undoZobristKeys=Arrays.copyOf(this.undoZobristKeys,newLength);
+		}
+	}
+
+	private static Alliance opponentOf(final Alliance alliance)
+	{
+		return alliance.isWhite()?Alliance.BLACK:Alliance.WHITE;
+	}
+
+	public Board toBoard() //Builds an immutable Board of the current position, e.g. for the GUI or a BoardEvaluator
+	{
+		final Board.Builder builder=new Board.Builder();
+		for (int tileCoord=0;tileCoord<64;tileCoord++)
+		{
+			final int pieceCode=this.mailbox[tileCoord];
+			if (pieceCode!=EMPTY)
+				builder.setPiece(createPiece(pieceCode,tileCoord));
+		}
+		if (this.enPassantTile!=-1)
+			builder.setEnPassantPawn((Pawn)createPiece(this.mailbox[this.enPassantTile],this.enPassantTile));
+		builder.setMoveMaker(this.sideToMove);
+		return builder.build();
+	}
+
+	private Piece createPiece(final int pieceCode,final int tileCoord) //Kings and rooks keep their first move flag while castling through them is still allowed
+	{
+		final Alliance alliance=ALLIANCES[pieceCode/BoardUtils.NUM_PIECE_TYPES];
+		final int rights=alliance.isWhite()?this.castlingRights&(BoardUtils.WHITE_KING_SIDE_CASTLE|BoardUtils.WHITE_QUEEN_SIDE_CASTLE):this.castlingRights&(BoardUtils.BLACK_KING_SIDE_CASTLE|BoardUtils.BLACK_QUEEN_SIDE_CASTLE);
+		switch (PIECE_TYPES[pieceCode%BoardUtils.NUM_PIECE_TYPES])
+		{
+			case PAWN: return Piece.of(PieceType.PAWN,alliance,tileCoord,(BoardUtils.PAWN_JUMPS[alliance.ordinal()][tileCoord])!=0);
+			case ROOK: return Piece.of(PieceType.ROOK,alliance,tileCoord,(rights&BoardUtils.CASTLING_MASKS[tileCoord])!=rights);
+			case KING: return Piece.of(PieceType.KING,alliance,tileCoord,rights!=0);
+			default: return Piece.of(PIECE_TYPES[pieceCode%BoardUtils.NUM_PIECE_TYPES],alliance,tileCoord,false);
+		}
+	}
+}
@@ -7,8 +7,6 @@ import elements.Piece.*;
 
 public class Pawn extends Piece
 {
-	private final static int[] CANDIDATE_MOVE_VECTOR_COORDINATES= {7,8,9,16}; //Possible offsets for pawn moves
-	
 	public Pawn(Alliance pieceAlliance,int piecePosition) //Constructor for Pawn
 	{
 		super(PieceType.PAWN,piecePosition, pieceAlliance,true);
@@ -20,99 +18,54 @@ public class Pawn extends Piece
 	}
 
 	@Override
-	public Collection<Move> calculateLegalMoves(Board board) //Method to calculate legal moves of a pawn
+	public Collection<Move> calculateLegalMoves(final Board board,final long destinationMask) //Method to calculate legal moves of a pawn from the precomputed push and attack tables
 	{
 		final List<Move> legalMoves=new ArrayList<>(); //Arraylist for all legal moves
+		final int allianceIndex=this.pieceAlliance.ordinal();
+		final long emptyTiles=~board.getOccupancy();
 		
-		for (int currentCandidateOffset:CANDIDATE_MOVE_VECTOR_COORDINATES) //Looping through all possible offset
+		final long singlePush=BoardUtils.PAWN_PUSHES[allianceIndex][this.piecePosition]&emptyTiles;
+		if (singlePush!=0) //Checking if it's legal to push the pawn one square
 		{
-			final int candidateDestinationCoord=this.piecePosition+currentCandidateOffset*this.pieceAlliance.getdirection(); //Setting candidateDestinationCoord to current piecePosition + offset
-			
-			if (!BoardUtils.isValidTileCoord(candidateDestinationCoord)) //Checking if current position is valid
-				continue;
-			
-			if (currentCandidateOffset==8 && !board.getTile(candidateDestinationCoord).isTileOccupied()) //Checking if it's legal to push the pawn one square 
+			final int candidateDestinationCoord=Long.numberOfTrailingZeros(singlePush);
+			if ((singlePush&destinationMask)!=0) //A masked out push can still be followed by a wanted jump through it
 			{
 				if (this.pieceAlliance.isPawnPromotionSquare(candidateDestinationCoord))
-				{
 					legalMoves.add(new PawnPromotion(new PawnMove(board,this,candidateDestinationCoord)));
-				}
 				else
-				{
-					legalMoves.add(new PawnMove(board,this,candidateDestinationCoord)); 
-				}
-			}
-			else if (currentCandidateOffset==16 && this.isFirstMove() && 
-					((BoardUtils.SEVENTH_RANK[this.piecePosition] && this.getPieceAlliance().isBlack()) || 
-					(BoardUtils.SECOND_RANK[this.piecePosition] && this.getPieceAlliance().isWhite()))) //Checking if it's legal to push the pawn forward 2 squares (first move of the pawn)
-			{
-				final int skippedCoord=this.piecePosition+this.pieceAlliance.getdirection()*8;
-				if (!board.getTile(skippedCoord).isTileOccupied() && !board.getTile(candidateDestinationCoord).isTileOccupied())
-					legalMoves.add(new PawnJump(board,this,candidateDestinationCoord));	
+					legalMoves.add(new PawnMove(board,this,candidateDestinationCoord));
 			}
+
+			final long doublePush=BoardUtils.PAWN_JUMPS[allianceIndex][this.piecePosition]&emptyTiles&destinationMask; //Only non-zero on the starting row, and only reachable when the skipped tile is empty
+			if (this.isFirstMove() && doublePush!=0)
+				legalMoves.add(new PawnJump(board,this,Long.numberOfTrailingZeros(doublePush)));
+		}
+		
+		final long attackedTiles=BoardUtils.PAWN_ATTACKS[allianceIndex][this.piecePosition];
+		long captures=attackedTiles&board.getOccupancy()&~board.getAllianceOccupancy(this.pieceAlliance)&destinationMask;
+		while (captures!=0) //Diagonal captures of enemy pieces
+		{
+			final int candidateDestinationCoord=Long.numberOfTrailingZeros(captures);
+			captures&=captures-1;
 			
-			else if (currentCandidateOffset==7 &&
-					!(BoardUtils.EIGHTH_COLUMN[this.piecePosition] && this.pieceAlliance.isWhite() ||
-				    (BoardUtils.FIRST_COLUMN[this.piecePosition] && this.pieceAlliance.isBlack()))) //Checking if it's legal to capture diagonally to the right
+			final Piece pieceOnCandidate=board.getPiece(candidateDestinationCoord);
+			if (this.pieceAlliance.isPawnPromotionSquare(candidateDestinationCoord))
 			{
-				if (board.getTile(candidateDestinationCoord).isTileOccupied())
-				{
-					final Piece pieceOnCandidate=board.getTile(candidateDestinationCoord).getPiece();
-					if (this.pieceAlliance!=pieceOnCandidate.pieceAlliance)
-					{
-						if (this.pieceAlliance.isPawnPromotionSquare(candidateDestinationCoord))
-						{
-							legalMoves.add(new PawnPromotion(new PawnAttackMove(board,this,candidateDestinationCoord,pieceOnCandidate)));
-						}
-						else
-						{
-							legalMoves.add(new PawnAttackMove(board,this,candidateDestinationCoord,pieceOnCandidate));
-						}
-					}
-				}
-				
-				else if (board.getEnPassantPawn()!=null && 
-						board.getEnPassantPawn().getPiecePosition()==(this.piecePosition+(this.pieceAlliance.getOppositeDirection()))) //Checking whether there is a valid En Passant move
-				{
-					final Piece pieceOnCandidate=board.getEnPassantPawn();
-					if (this.pieceAlliance!=pieceOnCandidate.getPieceAlliance())
-					{
-						legalMoves.add(new PawnEnPassantAttackMove(board,this,candidateDestinationCoord,pieceOnCandidate));
-					}
-				}
+				legalMoves.add(new PawnPromotion(new PawnAttackMove(board,this,candidateDestinationCoord,pieceOnCandidate)));
 			}
-			
-			else if (currentCandidateOffset==9 &&
-					!(BoardUtils.FIRST_COLUMN[this.piecePosition] && this.pieceAlliance.isWhite() ||
-					 (BoardUtils.EIGHTH_COLUMN[this.piecePosition] && this.pieceAlliance.isBlack()))) //Checking if it's legal to capture diagonally to the left
+			else
 			{
-				if (board.getTile(candidateDestinationCoord).isTileOccupied())
-				{
-					final Piece pieceOnCandidate=board.getTile(candidateDestinationCoord).getPiece();
-					if (this.pieceAlliance!=pieceOnCandidate.pieceAlliance)
-					{
-						if (this.pieceAlliance.isPawnPromotionSquare(candidateDestinationCoord))
-						{
-							legalMoves.add(new PawnPromotion(new PawnAttackMove(board,this,candidateDestinationCoord,pieceOnCandidate)));
-						}
-						else
-						{
-							legalMoves.add(new PawnAttackMove(board,this,candidateDestinationCoord,pieceOnCandidate));
-						}
-					}
-				}
-				
-				else if (board.getEnPassantPawn()!=null && 
-						board.getEnPassantPawn().getPiecePosition()==(this.piecePosition-(this.pieceAlliance.getOppositeDirection()))) //Checking whether there is a valid En Passant move
-				{
-					final Piece pieceOnCandidate=board.getEnPassantPawn();
-					if (this.pieceAlliance!=pieceOnCandidate.getPieceAlliance())
-					{
-						legalMoves.add(new PawnEnPassantAttackMove(board,this,candidateDestinationCoord,pieceOnCandidate));
-					}
-				}
+				legalMoves.add(new PawnAttackMove(board,this,candidateDestinationCoord,pieceOnCandidate));
 			}
-				
+		}
+		
+		final Pawn enPassantPawn=board.getEnPassantPawn();
+		if (enPassantPawn!=null && this.pieceAlliance!=enPassantPawn.getPieceAlliance()) //Checking whether there is a valid En Passant move
+		{
+			final int candidateDestinationCoord=enPassantPawn.getPiecePosition()+this.pieceAlliance.getdirection()*8; //The tile the enemy pawn skipped over
+			final long enPassantTiles=BoardUtils.tileBit(candidateDestinationCoord)|BoardUtils.tileBit(enPassantPawn.getPiecePosition()); //Either landing on the mask or removing the pawn on it counts
+			if ((attackedTiles&BoardUtils.tileBit(candidateDestinationCoord))!=0 && (enPassantTiles&destinationMask)!=0)
+				legalMoves.add(new PawnEnPassantAttackMove(board,this,candidateDestinationCoord,enPassantPawn));
 		}
 		
 		return Collections.unmodifiableList(legalMoves); //Returning list of legal moves
@@ -125,11 +78,11 @@ public class Pawn extends Piece
 	
 	@Override
 	public Pawn movePiece(Move move) {
-		return new Pawn(move.getMovedPiece().getPieceAlliance(),move.getDestinationCoord());
+		return (Pawn)Piece.of(PieceType.PAWN,move.getMovedPiece().getPieceAlliance(),move.getDestinationCoord(),false);
 	}
 	
 	public Piece getPromotionPiece() //NOTE: for simplicity, pawns will always promote to a Queen
 	{
-		return new Queen(this.pieceAlliance,this.piecePosition,false);
+		return Piece.of(PieceType.QUEEN,this.pieceAlliance,this.piecePosition,false);
 	}
 }
@@ -10,6 +10,8 @@ public abstract class Piece
 	protected final boolean isFirstMove;
 	private final int cachedHashCode;
 	
+	private static final Piece[][][] PIECE_CACHE=createPieceCache(); //Every possible piece, indexed by bitboard index, tile and first move flag
+	
 	Piece (final PieceType pieceType,final int piecePosition, final Alliance pieceAlliance,final boolean isFirstMove) //Piece constructor, passing in piecePosition and piece ALlaince
 	{
 		this.pieceType=pieceType;
@@ -19,6 +21,41 @@ public abstract class Piece
 		this.cachedHashCode=computeHashCode();
 	}
 	
+	public static Piece of(final PieceType pieceType,final Alliance pieceAlliance,final int piecePosition,final boolean isFirstMove) //Shared immutable instance, so moving a piece never allocates
+	{
+		return PIECE_CACHE[BoardUtils.bitboardIndex(pieceAlliance,pieceType)][piecePosition][isFirstMove?1:0];
+	}
+	
+	private static Piece[][][] createPieceCache()
+	{
+		final Piece[][][] cache=new Piece[BoardUtils.NUM_BITBOARDS][64][2];
+		for (final Alliance alliance:Alliance.values())
+		{
+			for (final PieceType pieceType:PieceType.values())
+			{
+				for (int tileCoord=0;tileCoord<64;tileCoord++)
+				{
+					for (int firstMove=0;firstMove<2;firstMove++)
+						cache[BoardUtils.bitboardIndex(alliance,pieceType)][tileCoord][firstMove]=createPiece(pieceType,alliance,tileCoord,firstMove==1);
+				}
+			}
+		}
+		return cache;
+	}
+	
+	private static Piece createPiece(final PieceType pieceType,final Alliance alliance,final int tileCoord,final boolean isFirstMove)
+	{
+		switch (pieceType)
+		{
+			case PAWN: return new Pawn(alliance,tileCoord,isFirstMove);
+			case KNIGHT: return new Knight(alliance,tileCoord,isFirstMove);
+			case BISHOP: return new Bishop(alliance,tileCoord,isFirstMove);
+			case ROOK: return new Rook(alliance,tileCoord,isFirstMove);
+			case QUEEN: return new Queen(alliance,tileCoord,isFirstMove);
+			default: return new King(alliance,tileCoord,isFirstMove);
+		}
+	}
+	
 	private int computeHashCode() //Method to generate a hashcode for each piece
 	{
 		int result=pieceType.hashCode();
@@ -62,7 +99,7 @@ public abstract class Piece
 		return this.pieceType.getPieceValue();
 	}
 	
-	public abstract Piece movePiece (Move move);
+	public abstract Piece movePiece (Move move); //The piece on the move's destination, no longer on its first move
 	
 	public Alliance getPieceAlliance()
 	{
@@ -74,7 +111,33 @@ public abstract class Piece
 		return this.isFirstMove;
 	}
 	
-	public abstract Collection<Move> calculateLegalMoves (final Board board); //A method that will return a list of all legal moves in a position
+	public Collection<Move> calculateLegalMoves (final Board board) //A method that will return a list of all legal moves in a position
+	{
+		return calculateLegalMoves(board,BoardUtils.ALL_TILES);
+	}
+	
+	public abstract Collection<Move> calculateLegalMoves (final Board board,final long destinationMask); //Same, but only moves landing on tiles in destinationMask (used for check evasions and pins)
+	
+	protected final List<Move> calculateMajorMoves(final Board board,final long attackedTiles) //Turns an attack bitboard into MajorMoves and MajorAttackMoves, skipping own pieces
+	{
+		final List<Move> legalMoves=new ArrayList<>(Long.bitCount(attackedTiles));
+		long destinations=attackedTiles&~board.getAllianceOccupancy(this.pieceAlliance);
+		while (destinations!=0)
+		{
+			final int candidateDestinationCoord=Long.numberOfTrailingZeros(destinations);
+			destinations&=destinations-1;
+			
+			if (!board.isTileOccupied(candidateDestinationCoord))
+			{
+				legalMoves.add(new Move.MajorMove(board,this,candidateDestinationCoord));
+			}
+			else
+			{
+				legalMoves.add(new Move.MajorAttackMove(board,this,candidateDestinationCoord,board.getPiece(candidateDestinationCoord)));
+			}
+		}
+		return legalMoves;
+	}
 	
 	public enum PieceType //Enum to convert each type of piece into their specified format
 	{
@@ -23,9 +23,32 @@ public abstract class Tile //NOTE: Following suggestion in the tutorial, most pa
 		return Collections.unmodifiableMap(emptyTileMap); //Returns the generated map and making it immutable
 	}
 	
-	public static Tile createTile (final int tileCoord,final Piece piece) //This method creates an OccupiedTile or Empty_Tiles depending on whether the tile has a piece on it
+	private static final OccupiedTile[][][] OCCUPIED_TILES_CACHE=createAllPossibleOccupiedTiles(); //One tile per shared Piece instance, indexed like Piece.of
+	
+	private static OccupiedTile[][][] createAllPossibleOccupiedTiles()
+	{
+		final OccupiedTile[][][] occupiedTiles=new OccupiedTile[BoardUtils.NUM_BITBOARDS][64][2];
+		for (final Alliance alliance:Alliance.values())
+		{
+			for (final Piece.PieceType pieceType:Piece.PieceType.values())
+			{
+				for (int i=0;i<64;i++)
+				{
+					occupiedTiles[BoardUtils.bitboardIndex(alliance,pieceType)][i][0]=new OccupiedTile(i,Piece.of(pieceType,alliance,i,false));
+					occupiedTiles[BoardUtils.bitboardIndex(alliance,pieceType)][i][1]=new OccupiedTile(i,Piece.of(pieceType,alliance,i,true));
+				}
+			}
+		}
+		return occupiedTiles;
+	}
+	
+	public static Tile createTile (final int tileCoord,final Piece piece) //This method hands out a cached OccupiedTile or EmptyTile depending on whether the tile has a piece on it
 	{
-		return piece!=null? new OccupiedTile(tileCoord, piece):EMPTY_TILES_Cache.get(tileCoord);
+		if (piece==null)
+			return EMPTY_TILES_Cache.get(tileCoord);
+		if (piece.getPiecePosition()!=tileCoord) //Not something a Board produces, but not worth caching either
+			return new OccupiedTile(tileCoord,piece);
+		return OCCUPIED_TILES_CACHE[BoardUtils.bitboardIndex(piece)][tileCoord][piece.isFirstMove()?1:0];
 	}
 	
 	public abstract boolean isTileOccupied(); //Boolean method for checking whether the tile is empty
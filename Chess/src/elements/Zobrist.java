@@ -0,0 +1,63 @@
+package elements;
+
+import java.util.Random;
+
+public final class Zobrist //Random keys for Zobrist hashing: a position's key is the XOR of the keys of everything in it
+{
+	private Zobrist() //Stops people from trying to instantiate this class
+	{
+		throw new RuntimeException("Cannot instantiate this class");
+	}
+
+	private static final long ZOBRIST_SEED=0x4A436865737321L; //Fixed seed so keys are stable between runs
+
+	private static final long[][] PIECE_KEYS=new long[BoardUtils.NUM_BITBOARDS][64];
+	private static final long[] CASTLING_KEYS=new long[16]; //One per combination of the four castling right bits
+	private static final long[] EN_PASSANT_KEYS=new long[8]; //One per column of the pawn that just jumped
+	public static final long SIDE_TO_MOVE_KEY; //Present in the key when black is to move
+
+	static
+	{
+		final Random random=new Random(ZOBRIST_SEED);
+		for (final long[] tileKeys:PIECE_KEYS)
+		{
+			for (int i=0;i<tileKeys.length;i++)
+				tileKeys[i]=random.nextLong();
+		}
+		for (int i=1;i<CASTLING_KEYS.length;i++) //No rights hashes to zero so boards without castling don't pay for it
+			CASTLING_KEYS[i]=random.nextLong();
+		for (int i=0;i<EN_PASSANT_KEYS.length;i++)
+			EN_PASSANT_KEYS[i]=random.nextLong();
+		SIDE_TO_MOVE_KEY=random.nextLong();
+	}
+
+	public static long pieceKey(final int bitboardIndex,final int tileCoord)
+	{
+		return PIECE_KEYS[bitboardIndex][tileCoord];
+	}
+
+	public static long pieceKey(final Piece piece,final int tileCoord) //Key of the piece's type and alliance standing on the given tile
+	{
+		return PIECE_KEYS[BoardUtils.bitboardIndex(piece)][tileCoord];
+	}
+
+	public static long castlingKey(final int castlingRights)
+	{
+		return CASTLING_KEYS[castlingRights];
+	}
+
+	public static long enPassantKey(final int enPassantTile) //Takes the tile of the pawn that just jumped, or -1 for none
+	{
+		return enPassantTile==-1?0L:EN_PASSANT_KEYS[enPassantTile&7];
+	}
+
+	public static long enPassantKey(final Pawn enPassantPawn)
+	{
+		return enPassantPawn==null?0L:enPassantKey(enPassantPawn.getPiecePosition());
+	}
+
+	public static long sideToMoveKey(final Alliance alliance)
+	{
+		return alliance.isBlack()?SIDE_TO_MOVE_KEY:0L;
+	}
+}
@@ -0,0 +1,318 @@
+package engine;
+
+import java.util.Collections;
+
+import elements.Board;
+import elements.Move;
+import elements.MoveEncoding;
+import elements.MutableBoard;
+
+public class AlphaBeta implements MoveStrategy //Fail-soft negamax alpha-beta over a MutableBoard with a quiescence search at the leaves, moves ordered by MovePicker, results shared through a TranspositionTable
+{
+	public static final int MATE_SCORE=100000; //Mate in n plies scores MATE_SCORE-n, so quicker mates are preferred
+	static final int INFINITY=MATE_SCORE+1;
+	static final int MAX_PLY=128; //Deeper than any search reaches, scores within this of MATE_SCORE are mates
+	private static final int TIME_CHECK_INTERVAL=2047; //Reading the clock every node would cost more than it saves
+
+	private final BoardEvaluator boardEvaluator;
+	private final PositionEvaluator positionEvaluator; //The same evaluator when it is one, so leaves are scored from the bitboards without building a Board
+	private final int searchDepth;
+	private final TranspositionTable transpositionTable;
+	private final SearchParameters searchParameters; //Null-move pruning, late-move reductions and delta pruning, which keep the effective branching factor low
+	private final MoveOrdering moveOrdering=new MoveOrdering(); //Per instance, so every search thread learns its own killers and history
+	private final MovePicker[] movePickers=new MovePicker[MAX_PLY]; //One per ply, created on first use and reset at every node after that, so searching allocates nothing
+	private long nodesSearched;
+	private long deadlineNanos=Long.MAX_VALUE;
+	private boolean aborted;
+	private volatile boolean stopRequested; //Set from another thread, e.g. by IterativeDeepening to halt its helpers
+	private int rootScore;
+
+	public AlphaBeta(final int searchDepth,final TranspositionTable transpositionTable) //Pass the same table every move to keep what earlier searches learned. Tables hold their memory off-heap, so share one rather than building one per engine
+	{
+		this(searchDepth,transpositionTable,SearchParameters.DEFAULT);
+	}
+
+	public AlphaBeta(final int searchDepth,final TranspositionTable transpositionTable,final SearchParameters searchParameters)
+	{
+		this(searchDepth,transpositionTable,searchParameters,new PositionEvaluator());
+	}
+
+	public AlphaBeta(final int searchDepth,final TranspositionTable transpositionTable,final SearchParameters searchParameters,final BoardEvaluator boardEvaluator) //Any other evaluator than PositionEvaluator is handed a Board built at every leaf, which is much slower
+	{
+		this.boardEvaluator=boardEvaluator;
+		this.positionEvaluator=boardEvaluator instanceof PositionEvaluator?(PositionEvaluator)boardEvaluator:null;
+		this.searchDepth=searchDepth;
+		this.transpositionTable=transpositionTable;
+		this.searchParameters=searchParameters;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "AlphaBeta";
+	}
+
+	@Override
+	public Move execute(final Board board)
+	{
+		return search(board).getMove();
+	}
+
+	public SearchResult search(final Board board) //Best move with its score, Move.NULL_MOVE when the side to move has no legal moves. If stopped, the best of the root moves it finished, Move.NULL_MOVE if none
+	{
+		final long startTime=System.currentTimeMillis();
+		beginSearch();
+		this.transpositionTable.newSearch();
+		final int bestMove=searchRoot(new MutableBoard(board),this.searchDepth,MoveEncoding.NULL_MOVE);
+		return new SearchResult(Move.MoveFactory.createMove(board,bestMove),this.rootScore,this.searchDepth,this.nodesSearched,
+								System.currentTimeMillis()-startTime,Collections.emptyList());
+	}
+
+	void beginSearch() //Starts a new search: clears the node count, the deadline and any stop or abort left over from the last one
+	{
+		this.nodesSearched=0;
+		this.deadlineNanos=Long.MAX_VALUE;
+		this.aborted=false;
+		this.stopRequested=false;
+	}
+
+	void seedMoveOrdering(final long seed) //Randomizes the order of quiet moves, so a Lazy SMP helper explores the tree differently from its siblings
+	{
+		this.moveOrdering.seedHistory(seed);
+	}
+
+	void setDeadline(final long deadlineNanos) //System.nanoTime() past which a search gives up, Long.MAX_VALUE for none
+	{
+		this.deadlineNanos=deadlineNanos;
+	}
+
+	void stop() //Makes the current search abort at its next clock check, including any searchRoot calls it has still to make. beginSearch clears it
+	{
+		this.stopRequested=true;
+	}
+
+	boolean isAborted() //Whether the last searchRoot ran out of time, in which case its move and score are not to be trusted
+	{
+		return this.aborted;
+	}
+
+	int getRootScore()
+	{
+		return this.rootScore;
+	}
+
+	long getNodesSearched()
+	{
+		return this.nodesSearched;
+	}
+
+	int searchRoot(final MutableBoard board,final int depth,final int firstMove) //Best root move to the given depth, trying firstMove before the rest. The board is left as it was
+	{
+		this.aborted=this.stopRequested; //A stop stays in force for the whole search, the deadline is checked afresh each iteration
+		int bestMove=MoveEncoding.NULL_MOVE;
+		int alpha=-INFINITY;
+		final MovePicker movePicker=movePicker(0).reset(board,firstMove!=MoveEncoding.NULL_MOVE?firstMove:
+											TranspositionTable.getMove(this.transpositionTable.probe(board.zobristKey())),0);
+		for (int move=movePicker.nextMove();move!=MoveEncoding.NULL_MOVE;move=movePicker.nextMove())
+		{
+			if (!board.makeMove(move))
+				continue;
+			final int score=-negamax(board,depth-1,-INFINITY,-alpha,1,true);
+			board.unmakeMove();
+			if (this.aborted)
+				break;
+			if (score>alpha)
+			{
+				alpha=score;
+				bestMove=move;
+			}
+		}
+		if (bestMove==MoveEncoding.NULL_MOVE && !this.aborted) //No legal move at the root
+			alpha=board.isInCheck()?-MATE_SCORE:0;
+		else if (!this.aborted)
+			this.transpositionTable.store(board.zobristKey(),bestMove,TranspositionTable.scoreToTable(alpha,0),depth,TranspositionTable.EXACT);
+		this.rootScore=alpha;
+		return bestMove;
+	}
+
+	private int negamax(final MutableBoard board,final int depth,int alpha,final int beta,final int ply,final boolean allowNullMove) //allowNullMove is false right after a pass, two in a row would prove nothing
+	{
+		if (depth<=0 || ply>=MAX_PLY) //Past MAX_PLY there is no picker left, quiescence just evaluates
+			return quiescence(board,alpha,beta,ply);
+		if (isOutOfTime()) //Unwinds without searching further, the caller throws the result away
+			return 0;
+
+		final long key=board.zobristKey();
+		final long entry=this.transpositionTable.probe(key);
+		if (entry!=TranspositionTable.NO_ENTRY && TranspositionTable.getDepth(entry)>=depth) //Reached before by another move order, at least as deep
+		{
+			final int storedScore=TranspositionTable.scoreFromTable(TranspositionTable.getScore(entry),ply);
+			final int bound=TranspositionTable.getBound(entry);
+			if (bound==TranspositionTable.EXACT || (bound==TranspositionTable.LOWER_BOUND && storedScore>=beta) ||
+				(bound==TranspositionTable.UPPER_BOUND && storedScore<=alpha))
+				return storedScore;
+		}
+
+		final boolean inCheck=board.isInCheck();
+		if (allowNullMove && isNullMoveAllowed(board,depth,beta,inCheck))
+		{
+			final int reducedDepth=depth-1-this.searchParameters.getNullMoveReduction(depth);
+			board.makeNullMove();
+			int nullScore=-negamax(board,reducedDepth,-beta,-beta+1,ply+1,false);
+			board.unmakeNullMove();
+			if (this.aborted)
+				return 0;
+			if (nullScore>=beta) //Even a free move for the opponent does not bring the score under beta
+			{
+				if (depth>=this.searchParameters.getNullMoveVerificationDepth()) //Deep cutoffs are checked with a reduced search of our own moves, which catches zugzwang the material guard misses
+					nullScore=negamax(board,reducedDepth+1,beta-1,beta,ply,false);
+				if (this.aborted)
+					return 0;
+				if (nullScore>=beta)
+					return nullScore>=MATE_SCORE-MAX_PLY?beta:nullScore; //A mate found after passing is not a real mate
+			}
+		}
+
+		final int originalAlpha=alpha;
+		int bestScore=-INFINITY;
+		int bestMove=MoveEncoding.NULL_MOVE;
+		boolean hasLegalMove=false;
+		int movesSearched=0;
+		final MovePicker movePicker=movePicker(ply).reset(board,TranspositionTable.getMove(entry),ply);
+		for (int move=movePicker.nextMove();move!=MoveEncoding.NULL_MOVE;move=movePicker.nextMove())
+		{
+			if (!board.makeMove(move))
+				continue;
+			hasLegalMove=true;
+			int score;
+			if (isLateMoveReducible(board,move,depth,ply,movesSearched,inCheck))
+			{
+				final int reduction=Math.max(0,Math.min(this.searchParameters.getLateMoveReduction(),depth-2));
+				score=-negamax(board,depth-1-reduction,-alpha-1,-alpha,ply+1,true);
+				if (score>alpha && !this.aborted) //Fail-high: the reduced search may have missed why the move is good, so it gets the full depth after all
+					score=-negamax(board,depth-1,-beta,-alpha,ply+1,true);
+			}
+			else
+				score=-negamax(board,depth-1,-beta,-alpha,ply+1,true);
+			board.unmakeMove();
+			movesSearched++;
+			if (this.aborted)
+				return 0;
+			if (score>bestScore)
+			{
+				bestScore=score;
+				if (score>alpha)
+				{
+					alpha=score;
+					bestMove=move;
+					if (score>=beta) //The opponent already has something better than letting us get here
+					{
+						if (!MoveEncoding.isCapture(move) && !MoveEncoding.isPromotion(move))
+							this.moveOrdering.recordCutoff(board.getSideToMove(),move,depth,ply);
+						break;
+					}
+				}
+			}
+		}
+		if (!hasLegalMove) //Checkmate or stalemate
+			return inCheck?-MATE_SCORE+ply:0;
+
+		final int bound=bestScore>=beta?TranspositionTable.LOWER_BOUND:bestScore>originalAlpha?TranspositionTable.EXACT:TranspositionTable.UPPER_BOUND;
+		this.transpositionTable.store(key,bestMove,TranspositionTable.scoreToTable(bestScore,ply),depth,bound);
+		return bestScore;
+	}
+
+	private MovePicker movePicker(final int ply)
+	{
+		MovePicker movePicker=this.movePickers[ply];
+		if (movePicker==null)
+		{
+			movePicker=new MovePicker(this.moveOrdering);
+			this.movePickers[ply]=movePicker;
+		}
+		return movePicker;
+	}
+
+	private int evaluate(final MutableBoard board) //Score for the side to move
+	{
+		if (this.positionEvaluator!=null)
+			return this.positionEvaluator.evaluate(board);
+		final int whiteScore=this.boardEvaluator.evaluate(board.toBoard(),0);
+		return board.getSideToMove().isWhite()?whiteScore:-whiteScore;
+	}
+
+	private boolean isNullMoveAllowed(final MutableBoard board,final int depth,final int beta,final boolean inCheck) //Passing is illegal in check, pointless near the leaves and unsound with only pawns left, where zugzwang is common
+	{
+		return this.searchParameters.isNullMovePruning() && !inCheck && depth>=this.searchParameters.getNullMoveMinDepth() &&
+			   Math.abs(beta)<MATE_SCORE-MAX_PLY && board.hasNonPawnMaterial(board.getSideToMove()) &&
+			   evaluate(board)+this.searchParameters.getNullMoveEvalMargin()>=beta;
+	}
+
+	private boolean isLateMoveReducible(final MutableBoard board,final int move,final int depth,final int ply,final int movesSearched,final boolean inCheck) //Called with the move made. Quiet moves late in a well ordered list rarely matter, unless they are killers or give check
+	{
+		return this.searchParameters.isLateMoveReductions() && depth>=this.searchParameters.getLateMoveMinDepth() &&
+			   movesSearched>=this.searchParameters.getLateMoveFullDepthMoves() && !inCheck &&
+			   !MoveEncoding.isCapture(move) && !MoveEncoding.isPromotion(move) && !this.moveOrdering.isKiller(ply,move) && !board.isInCheck();
+	}
+
+	private int quiescence(final MutableBoard board,int alpha,final int beta,final int ply) //Plays out captures and promotions past the horizon, so a leaf is never scored in the middle of an exchange
+	{
+		if (isOutOfTime())
+			return 0;
+		if (ply>=MAX_PLY)
+			return evaluate(board);
+		final boolean inCheck=board.isInCheck();
+
+		int bestScore;
+		final int standPat;
+		if (inCheck) //Every evasion is searched, standing pat is no option when the king is attacked
+		{
+			standPat=-INFINITY;
+			bestScore=-INFINITY;
+		}
+		else
+		{
+			standPat=evaluate(board);
+			if (standPat>=beta) //Already good enough without capturing anything
+				return standPat;
+			alpha=Math.max(alpha,standPat);
+			bestScore=standPat;
+		}
+
+		boolean hasLegalMove=false;
+		final MovePicker movePicker=inCheck?movePicker(ply).reset(board,MoveEncoding.NULL_MOVE,ply):movePicker(ply).resetForCaptures(board);
+		for (int move=movePicker.nextMove();move!=MoveEncoding.NULL_MOVE;move=movePicker.nextMove())
+		{
+			if (!inCheck && !MoveEncoding.isPromotion(move) &&
+				standPat+MoveEncoding.getCapturedPieceType(move).getPieceValue()+this.searchParameters.getDeltaMargin()<=alpha) //Delta pruning: even winning the piece for free would not lift the score to alpha
+				continue;
+			if (!board.makeMove(move))
+				continue;
+			hasLegalMove=true;
+			final int score=-quiescence(board,-beta,-alpha,ply+1);
+			board.unmakeMove();
+			if (this.aborted)
+				return 0;
+			if (score>bestScore)
+			{
+				bestScore=score;
+				if (score>alpha)
+				{
+					alpha=score;
+					if (score>=beta)
+						break;
+				}
+			}
+		}
+		if (inCheck && !hasLegalMove)
+			return -MATE_SCORE+ply;
+		return bestScore;
+	}
+
+	private boolean isOutOfTime() //Counts the node, looking at the clock and the stop flag every few thousand
+	{
+		if ((++this.nodesSearched&TIME_CHECK_INTERVAL)==0 && (this.stopRequested || System.nanoTime()>this.deadlineNanos))
+			this.aborted=true;
+		return this.aborted;
+	}
+}
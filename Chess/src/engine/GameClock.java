@@ -0,0 +1,65 @@
+package engine;
+
+import elements.Alliance;
+
+public final class GameClock //Remaining time for both sides under a base plus increment control, with an optional number of moves until the next time control. Synchronized, as the engine reads and punches it from its search thread while the GUI punches human moves
+{
+	private static final int DEFAULT_MOVES_TO_GO=30; //Assumed number of moves left in sudden death, keeps some time back for later in the game
+	private static final long MOVE_OVERHEAD_MILLIS=50; //Kept back on every move for the GUI and thread hand-off
+	private static final long MINIMUM_MOVE_MILLIS=10;
+
+	private final long baseMillis;
+	private final long incrementMillis;
+	private final int movesPerControl; //0 means the whole game is played on the base time
+	private final long[] remainingMillis;
+	private final int[] movesToGo;
+
+	public GameClock(final long baseMillis,final long incrementMillis,final int movesPerControl)
+	{
+		this.baseMillis=baseMillis;
+		this.incrementMillis=incrementMillis;
+		this.movesPerControl=movesPerControl;
+		this.remainingMillis=new long[]{baseMillis,baseMillis};
+		this.movesToGo=new int[]{movesPerControl,movesPerControl};
+	}
+
+	public synchronized long getRemainingMillis(final Alliance alliance)
+	{
+		return this.remainingMillis[alliance.ordinal()];
+	}
+
+	public long getIncrementMillis()
+	{
+		return this.incrementMillis;
+	}
+
+	public synchronized int getMovesToGo(final Alliance alliance) //0 in sudden death
+	{
+		return this.movesToGo[alliance.ordinal()];
+	}
+
+	public synchronized long allocateMillis(final Alliance alliance) //How long the side may think about its next move: an even share of what is left plus most of the increment, never more than the clock holds
+	{
+		final long remaining=this.remainingMillis[alliance.ordinal()];
+		final int movesLeft=this.movesPerControl>0?this.movesToGo[alliance.ordinal()]:DEFAULT_MOVES_TO_GO;
+		final long share=remaining/Math.max(movesLeft,1)+this.incrementMillis*3/4;
+		return Math.max(Math.min(share,remaining-MOVE_OVERHEAD_MILLIS),MINIMUM_MOVE_MILLIS);
+	}
+
+	public synchronized void punch(final Alliance alliance,final long elapsedMillis) //Charges a finished move to the side, adding the increment and starting a new control when one runs out
+	{
+		final int side=alliance.ordinal();
+		this.remainingMillis[side]+=this.incrementMillis-elapsedMillis;
+		if (this.movesPerControl>0 && --this.movesToGo[side]==0)
+		{
+			this.remainingMillis[side]+=this.baseMillis;
+			this.movesToGo[side]=this.movesPerControl;
+		}
+	}
+
+	@Override
+	public synchronized String toString()
+	{
+		return "white "+this.remainingMillis[0]+" ms, black "+this.remainingMillis[1]+" ms";
+	}
+}
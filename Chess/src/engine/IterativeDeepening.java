@@ -0,0 +1,131 @@
+package engine;
+
+import java.util.*;
+
+import elements.Alliance;
+import elements.Board;
+import elements.Move;
+import elements.MoveEncoding;
+import elements.MutableBoard;
+
+public class IterativeDeepening implements MoveStrategy //Runs AlphaBeta at depth 1, 2, 3... until the time given by a GameClock runs out, and plays the best move of the last depth it finished
+{
+	private static final long NANOS_PER_MILLI=1000000L;
+
+	private final int maxDepth;
+	private final GameClock gameClock;
+	private final TranspositionTable transpositionTable;
+	private final SearchParameters searchParameters;
+	private final int threadCount; //Beyond the first, helper threads search the same position alongside it (Lazy SMP) and share what they find through the TranspositionTable
+
+	public IterativeDeepening(final int maxDepth,final GameClock gameClock,final TranspositionTable transpositionTable) //Like AlphaBeta, takes the caller's table so it can be kept across moves
+	{
+		this(maxDepth,gameClock,transpositionTable,1);
+	}
+
+	public IterativeDeepening(final int maxDepth,final GameClock gameClock,final TranspositionTable transpositionTable,final int threadCount) //threadCount counts the calling thread, 1 searches alone
+	{
+		this(maxDepth,gameClock,transpositionTable,threadCount,SearchParameters.DEFAULT);
+	}
+
+	public IterativeDeepening(final int maxDepth,final GameClock gameClock,final TranspositionTable transpositionTable,final int threadCount,final SearchParameters searchParameters)
+	{
+		this.maxDepth=Math.max(maxDepth,1);
+		this.gameClock=gameClock;
+		this.transpositionTable=transpositionTable;
+		this.threadCount=Math.max(threadCount,1);
+		this.searchParameters=searchParameters;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "IterativeDeepening";
+	}
+
+	@Override
+	public Move execute(final Board board)
+	{
+		return search(board).getMove();
+	}
+
+	public SearchResult search(final Board board) //Charges the time used to the side to move on the game clock
+	{
+		final long startTime=System.nanoTime();
+		final Alliance alliance=board.currentPlayer().getAlliance();
+		final long budgetNanos=this.gameClock.allocateMillis(alliance)*NANOS_PER_MILLI;
+		final MutableBoard mutableBoard=new MutableBoard(board);
+		final AlphaBeta alphaBeta=new AlphaBeta(this.maxDepth,this.transpositionTable,this.searchParameters);
+		this.transpositionTable.newSearch();
+		this.transpositionTable.resetCounters();
+		alphaBeta.beginSearch();
+
+		final AlphaBeta[] helpers=new AlphaBeta[this.threadCount-1];
+		final Thread[] helperThreads=new Thread[helpers.length];
+		for (int i=0;i<helpers.length;i++)
+		{
+			final AlphaBeta helper=new AlphaBeta(this.maxDepth,this.transpositionTable,this.searchParameters);
+			final int firstDepth=1+(i+1)%2; //Every other helper skips a depth, so helpers spread out over neighbouring depths instead of repeating the main thread's work
+			helper.seedMoveOrdering(i+1); //Helpers at the same depth would otherwise walk the tree in the same order as each other
+			helper.beginSearch(); //Before the thread starts, so a stop sent later can never be cleared by it
+			helpers[i]=helper;
+			helperThreads[i]=new Thread(()->runHelper(helper,board,firstDepth),"LazySmp-helper-"+(i+1));
+			helperThreads[i].setDaemon(true);
+			helperThreads[i].start();
+		}
+
+		int bestMove=MoveEncoding.NULL_MOVE;
+		int bestScore=0;
+		int completedDepth=0;
+		final List<SearchResult> iterations=new ArrayList<>();
+		for (int depth=1;depth<=this.maxDepth;depth++)
+		{
+			alphaBeta.setDeadline(depth==1?Long.MAX_VALUE:startTime+budgetNanos); //Depth 1 always finishes so there is a move to play
+			final int move=alphaBeta.searchRoot(mutableBoard,depth,bestMove);
+			if (alphaBeta.isAborted())
+				break;
+			bestMove=move;
+			bestScore=alphaBeta.getRootScore();
+			completedDepth=depth;
+
+			final long elapsedNanos=System.nanoTime()-startTime;
+			iterations.add(new SearchResult(Move.MoveFactory.createMove(board,move),bestScore,depth,alphaBeta.getNodesSearched(),elapsedNanos/NANOS_PER_MILLI,Collections.emptyList()));
+			if (bestMove==MoveEncoding.NULL_MOVE || Math.abs(bestScore)>=AlphaBeta.MATE_SCORE-depth) //No moves, or a mate that a deeper search cannot improve on
+				break;
+			if (elapsedNanos>budgetNanos/2) //The next depth costs several times this one and would almost certainly be cut off
+				break;
+		}
+
+		long nodesSearched=alphaBeta.getNodesSearched();
+		for (final AlphaBeta helper:helpers)
+			helper.stop();
+		for (int i=0;i<helpers.length;i++)
+		{
+			joinQuietly(helperThreads[i]);
+			nodesSearched+=helpers[i].getNodesSearched();
+		}
+
+		final long elapsedMillis=(System.nanoTime()-startTime)/NANOS_PER_MILLI;
+		this.gameClock.punch(alliance,elapsedMillis);
+		return new SearchResult(Move.MoveFactory.createMove(board,bestMove),bestScore,completedDepth,nodesSearched,elapsedMillis,iterations);
+	}
+
+	private void runHelper(final AlphaBeta helper,final Board board,final int firstDepth) //Deepens until stopped. Its results only reach the main thread through the transposition table
+	{
+		final MutableBoard mutableBoard=new MutableBoard(board);
+		for (int depth=firstDepth;depth<=this.maxDepth && !helper.isAborted();depth++)
+			helper.searchRoot(mutableBoard,depth,MoveEncoding.NULL_MOVE);
+	}
+
+	private static void joinQuietly(final Thread thread)
+	{
+		try
+		{
+			thread.join();
+		}
+		catch (final InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -1,18 +1,32 @@
 package engine;
 
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import elements.Board;
 import elements.Move;
 import players.MoveTransition;
 
 public class MiniMax implements MoveStrategy
 {
+	private static final int MIN_SPLIT_DEPTH=2; //Subtrees shallower than this cost less than handing them to another thread
+	
 	private final BoardEvaluator boardEvaluator;
 	private final int searchDepth;
+	private final int splitPlies;
 	
 	public MiniMax(final int searchDepth)
+	{
+		this(searchDepth,0);
+	}
+	
+	public MiniMax(final int searchDepth,final int splitPlies) //splitPlies 0 searches on the calling thread, 1 splits the root moves over the fork-join pool, 2 their replies as well, and so on
 	{
 		this.boardEvaluator=new StandardBoardEvaluator();
 		this.searchDepth = searchDepth;
+		this.splitPlies=splitPlies;
 	}
 	
 	@Override
@@ -24,14 +38,14 @@ public class MiniMax implements MoveStrategy
 	@Override
 	public Move execute(Board board) 
 	{
-		final long startTime=System.currentTimeMillis();
+		if (this.splitPlies>0 && this.searchDepth>1)
+			return executeParallel(board);
+		
 		Move bestMove=null;
 		int highestSeenValue=Integer.MIN_VALUE;
 		int lowestSeenValue=Integer.MAX_VALUE;
 		int currentValue;
 		
-		System.out.println(board.currentPlayer()+" THINKING with depth = "+searchDepth);
-		
 		int numMoves=board.currentPlayer().getLegalMoves().size();
 		for (final Move move:board.currentPlayer().getLegalMoves())
 		{
@@ -56,15 +70,12 @@ public class MiniMax implements MoveStrategy
 			
 		}
 		
-		final long executionTime=System.currentTimeMillis()-startTime;
-		
-		return null;
+		return bestMove!=null?bestMove:Move.NULL_MOVE;
 	}
 	
 	private static boolean isEndGameScenario(Board board)
 	{
-		return board.currentPlayer().isInCheckmate() ||
-			   board.currentPlayer().isInStalemate();
+		return board.currentPlayer().getGameStatus().isGameOver();
 	}
 	
 	public int min(final Board board, final int searchDepth) //min method to return the lowest value in a node, part of the co-recursive MiniMax algorithm
@@ -106,4 +117,185 @@ public class MiniMax implements MoveStrategy
 		
 		return highestSeenValue;
 	}
+	
+	private Move executeParallel(final Board board) //Young Brothers Wait: the first root move is searched alone to get a bound, then the rest are searched in parallel against the best bound found so far
+	{
+		final List<Move> moves=new ArrayList<>();
+		final List<Board> successors=new ArrayList<>();
+		collectSuccessors(board,moves,successors);
+		if (moves.isEmpty())
+			return Move.NULL_MOVE;
+		
+		final boolean maximizing=board.currentPlayer().getAlliance().isWhite();
+		final SharedBound bound=new SharedBound(Integer.MIN_VALUE,Integer.MAX_VALUE,maximizing);
+		final SiblingTask eldestBrother=new SiblingTask(successors.get(0),this.searchDepth-1,bound,this.splitPlies-1);
+		final List<SiblingTask> tasks=new ArrayList<>();
+		tasks.add(eldestBrother);
+		for (int i=1;i<successors.size();i++)
+			tasks.add(new SiblingTask(successors.get(i),this.searchDepth-1,bound,this.splitPlies-1));
+		
+		ForkJoinPool.commonPool().invoke(new RecursiveTask<Void>()
+		{
+			@Override
+			protected Void compute()
+			{
+				eldestBrother.compute();
+				invokeAll(tasks.subList(1,tasks.size()));
+				return null;
+			}
+		});
+		
+		Move bestMove=moves.get(0); //The eldest brother had the full window, so its value is exact
+		int bestValue=eldestBrother.value;
+		for (int i=1;i<tasks.size();i++)
+		{
+			final SiblingTask task=tasks.get(i);
+			if (task.isExact() && (maximizing?task.value>bestValue:task.value<bestValue))
+			{
+				bestValue=task.value;
+				bestMove=moves.get(i);
+			}
+		}
+		
+		return bestMove;
+	}
+	
+	private int alphaBeta(final Board board,final int searchDepth,int alpha,int beta,final int splitPlies) //The min/max values with alpha-beta pruning, splitting siblings across threads while splitPlies lasts
+	{
+		if (searchDepth==0 || isEndGameScenario(board))
+			return this.boardEvaluator.evaluate(board, searchDepth);
+		
+		final boolean maximizing=board.currentPlayer().getAlliance().isWhite();
+		final List<Board> successors=new ArrayList<>();
+		collectSuccessors(board,null,successors);
+		int bestValue=maximizing?Integer.MIN_VALUE:Integer.MAX_VALUE;
+		for (int i=0;i<successors.size();i++)
+		{
+			if (i>0 && splitPlies>0 && searchDepth>=MIN_SPLIT_DEPTH) //The eldest brother is done, the younger ones go in parallel
+			{
+				final SharedBound bound=new SharedBound(alpha,beta,maximizing);
+				bound.update(bestValue);
+				final List<SiblingTask> tasks=new ArrayList<>();
+				for (final Board successor:successors.subList(i,successors.size()))
+					tasks.add(new SiblingTask(successor,searchDepth-1,bound,splitPlies-1));
+				RecursiveTask.invokeAll(tasks);
+				return bound.getBestValue();
+			}
+			
+			final int currentValue=alphaBeta(successors.get(i),searchDepth-1,alpha,beta,splitPlies-1);
+			if (maximizing)
+			{
+				bestValue=Math.max(bestValue,currentValue);
+				alpha=Math.max(alpha,currentValue);
+			}
+			else
+			{
+				bestValue=Math.min(bestValue,currentValue);
+				beta=Math.min(beta,currentValue);
+			}
+			if (alpha>=beta) //The other side already has a better line than this one
+				break;
+		}
+		return bestValue;
+	}
+	
+	private static void collectSuccessors(final Board board,final List<Move> moves,final List<Board> successors) //Captures first, so the eldest brother is likely the best move and sets a tight bound
+	{
+		for (final Move move:MoveOrdering.orderByMvvLva(board.currentPlayer().getLegalMoves()))
+		{
+			final MoveTransition moveTransition=board.currentPlayer().makeMove(move);
+			if (moveTransition.getMoveStatus().isDone())
+			{
+				if (moves!=null)
+					moves.add(move);
+				successors.add(moveTransition.getTransitionBoard());
+			}
+		}
+	}
+	
+	private static final class SharedBound //Best value among siblings searched on different threads, which narrows the window of those that start later
+	{
+		private final int alpha;
+		private final int beta;
+		private final boolean maximizing;
+		private final AtomicInteger bestValue;
+		
+		SharedBound(final int alpha,final int beta,final boolean maximizing)
+		{
+			this.alpha=alpha;
+			this.beta=beta;
+			this.maximizing=maximizing;
+			this.bestValue=new AtomicInteger(maximizing?Integer.MIN_VALUE:Integer.MAX_VALUE);
+		}
+		
+		int getAlpha()
+		{
+			return this.maximizing?Math.max(this.alpha,this.bestValue.get()):this.alpha;
+		}
+		
+		int getBeta()
+		{
+			return this.maximizing?this.beta:Math.min(this.beta,this.bestValue.get());
+		}
+		
+		boolean isCutOff()
+		{
+			return getAlpha()>=getBeta();
+		}
+		
+		void update(final int value)
+		{
+			if (this.maximizing)
+				this.bestValue.accumulateAndGet(value,Math::max);
+			else
+				this.bestValue.accumulateAndGet(value,Math::min);
+		}
+		
+		int getBestValue()
+		{
+			return this.bestValue.get();
+		}
+	}
+	
+	private final class SiblingTask extends RecursiveTask<Integer>
+	{
+		private static final long serialVersionUID=1L;
+		
+		private final Board board;
+		private final int searchDepth;
+		private final SharedBound bound;
+		private final int splitPlies;
+		private int windowBound; //The parent's alpha (or beta when minimizing) this sibling was searched against
+		private int value;
+		
+		SiblingTask(final Board board,final int searchDepth,final SharedBound bound,final int splitPlies)
+		{
+			this.board=board;
+			this.searchDepth=searchDepth;
+			this.bound=bound;
+			this.splitPlies=splitPlies;
+		}
+		
+		@Override
+		protected Integer compute()
+		{
+			if (this.bound.isCutOff()) //A brother already refuted the parent, this subtree cannot matter
+			{
+				this.windowBound=this.bound.maximizing?Integer.MAX_VALUE:Integer.MIN_VALUE;
+				this.value=this.windowBound;
+				return this.value;
+			}
+			final int alpha=this.bound.getAlpha();
+			final int beta=this.bound.getBeta();
+			this.windowBound=this.bound.maximizing?alpha:beta;
+			this.value=alphaBeta(this.board,this.searchDepth,alpha,beta,this.splitPlies);
+			this.bound.update(this.value);
+			return this.value;
+		}
+		
+		boolean isExact() //Whether the value beat the bound it was searched against, rather than only proving the move is no better
+		{
+			return this.bound.maximizing?this.value>this.windowBound:this.value<this.windowBound;
+		}
+	}
 }
@@ -0,0 +1,106 @@
+package engine;
+
+import java.util.*;
+
+import elements.Alliance;
+import elements.Move;
+import elements.MoveEncoding;
+import elements.Piece.PieceType;
+
+public final class MoveOrdering //What a search has learned about which moves to try first: MVV-LVA for captures, two killer moves per ply and a from/to history for quiet moves
+{
+	private static final PieceType[] PIECE_TYPES=PieceType.values();
+	private static final int PROMOTION_BONUS=(PieceType.QUEEN.getPieceValue()-PieceType.PAWN.getPieceValue())*10;
+	private static final int KILLER_SLOTS=2;
+	private static final int HISTORY_LIMIT=1<<20; //Past this every history score is halved, so old cutoffs fade and nothing overflows
+	private static final int HISTORY_SEED_RANGE=16; //What a single depth 4 cutoff adds, so real cutoffs soon outweigh a seed
+
+	private final int[][] killerMoves=new int[AlphaBeta.MAX_PLY][KILLER_SLOTS];
+	private final int[][] history=new int[2][64*64]; //Per side, indexed by from*64+to
+
+	public static int captureScore(final int move) //Most valuable victim first, least valuable attacker breaking ties, a queen promotion counted as winning the difference
+	{
+		final int victimValue=MoveEncoding.isCapture(move)?MoveEncoding.getCapturedPieceType(move).getPieceValue():0;
+		final int score=mvvLva(victimValue,PIECE_TYPES[MoveEncoding.getMovedType(move)].getPieceValue());
+		return MoveEncoding.isPromotion(move)?score+PROMOTION_BONUS:score;
+	}
+
+	public static List<Move> orderByMvvLva(final Collection<Move> moves) //For searches over the immutable Board's moves: captures best first, then the rest in generation order
+	{
+		final List<Move> orderedMoves=new ArrayList<>(moves);
+		orderedMoves.sort(Comparator.comparingInt((final Move move)->move.isAttack()?
+							-mvvLva(move.getAttackedPiece().getPieceValue(),move.getMovedPiece().getPieceValue()):0)); //List.sort is stable, quiet moves keep their order
+		return orderedMoves;
+	}
+
+	private static int mvvLva(final int victimValue,final int attackerValue) //Victim values are a hundred apart at least, so the attacker term (a king is 100) only breaks ties
+	{
+		return victimValue*10-attackerValue/100;
+	}
+
+	public int[] getKillers(final int ply) //The quiet moves that last caused a cutoff at this ply, newest first, MoveEncoding.NULL_MOVE in unused slots
+	{
+		return this.killerMoves[Math.min(ply,AlphaBeta.MAX_PLY-1)];
+	}
+
+	public boolean isKiller(final int ply,final int move)
+	{
+		for (final int killer:getKillers(ply))
+		{
+			if (killer==move)
+				return true;
+		}
+		return false;
+	}
+
+	public int getHistoryScore(final Alliance alliance,final int move)
+	{
+		return this.history[alliance.ordinal()][historyIndex(move)];
+	}
+
+	public void recordCutoff(final Alliance alliance,final int move,final int depth,final int ply) //A quiet move refuted the opponent's last move: make it a killer and raise its history, more so the deeper the search below it
+	{
+		final int[] killers=getKillers(ply);
+		if (killers[0]!=move)
+		{
+			System.arraycopy(killers,0,killers,1,KILLER_SLOTS-1);
+			killers[0]=move;
+		}
+
+		final int[] sideHistory=this.history[alliance.ordinal()];
+		final int index=historyIndex(move);
+		sideHistory[index]+=depth*depth;
+		if (sideHistory[index]>HISTORY_LIMIT)
+		{
+			for (final int[] table:this.history)
+			{
+				for (int i=0;i<table.length;i++)
+					table[i]/=2;
+			}
+		}
+	}
+
+	public void clear()
+	{
+		for (final int[] killers:this.killerMoves)
+			Arrays.fill(killers,MoveEncoding.NULL_MOVE);
+		for (final int[] table:this.history)
+			Arrays.fill(table,0);
+	}
+
+	public void seedHistory(final long seed) //Clears, then gives every quiet move a small random history score, so differently seeded searches try quiet moves in different orders
+	{
+		clear();
+		final Random random=new Random(seed);
+		for (final int[] table:this.history)
+		{
+			for (int i=0;i<table.length;i++)
+				table[i]=random.nextInt(HISTORY_SEED_RANGE);
+		}
+	}
+
+	private static int historyIndex(final int move)
+	{
+		return MoveEncoding.getCurrentCoord(move)*64+MoveEncoding.getDestinationCoord(move);
+	}
+}
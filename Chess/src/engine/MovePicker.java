@@ -0,0 +1,180 @@
+package engine;
+
+import elements.IntMoveList;
+import elements.MoveEncoding;
+import elements.MutableBoard;
+
+public final class MovePicker //Hands out a node's moves one at a time: hash move, captures best first, killers, then quiet moves by history, generating each stage only once the previous one runs dry
+{
+	private enum Stage
+	{
+		HASH_MOVE,
+		GENERATE_CAPTURES,
+		CAPTURES,
+		KILLERS,
+		GENERATE_QUIETS,
+		QUIETS,
+		DONE
+	}
+
+	private final MoveOrdering moveOrdering;
+	private final IntMoveList moves=new IntMoveList(64);
+	private int[] scores=new int[64]; //Grows with the list, and then stays for every later node
+	private MutableBoard board;
+	private int hashMove;
+	private int[] killerMoves;
+	private boolean capturesOnly;
+	private Stage stage;
+	private int index;
+
+	public MovePicker(final MoveOrdering moveOrdering) //moveOrdering may be null for no killers and unordered quiet moves. Meant to be kept per ply and reset at every node, so its list and scores are reused
+	{
+		this.moveOrdering=moveOrdering;
+	}
+
+	public MovePicker reset(final MutableBoard board,final int hashMove,final int ply) //Starts over on a new node, hashMove may be MoveEncoding.NULL_MOVE
+	{
+		return reset(board,hashMove,ply,false);
+	}
+
+	public MovePicker resetForCaptures(final MutableBoard board) //Only captures and promotions, best first, for quiescence search
+	{
+		return reset(board,MoveEncoding.NULL_MOVE,0,true);
+	}
+
+	private MovePicker reset(final MutableBoard board,final int hashMove,final int ply,final boolean capturesOnly)
+	{
+		this.board=board;
+		this.hashMove=board.isPseudoLegal(hashMove)?hashMove:MoveEncoding.NULL_MOVE; //A hash collision can hand over a move from a different position
+		this.killerMoves=this.moveOrdering!=null && !capturesOnly?this.moveOrdering.getKillers(ply):null;
+		this.capturesOnly=capturesOnly;
+		this.moves.clear();
+		this.stage=Stage.HASH_MOVE;
+		return this;
+	}
+
+	public int nextMove() //Next pseudo-legal move, or MoveEncoding.NULL_MOVE when there are none left. Legality is left to MutableBoard.makeMove
+	{
+		while (true)
+		{
+			switch (this.stage)
+			{
+				case HASH_MOVE:
+					this.stage=Stage.GENERATE_CAPTURES;
+					if (this.hashMove!=MoveEncoding.NULL_MOVE)
+						return this.hashMove;
+					break;
+				case GENERATE_CAPTURES:
+					this.board.generateCaptures(this.moves);
+					scoreCaptures();
+					this.index=0;
+					this.stage=Stage.CAPTURES;
+					break;
+				case CAPTURES:
+					if (this.index<this.moves.size())
+					{
+						selectBest(this.index);
+						final int move=this.moves.get(this.index++);
+						if (move!=this.hashMove)
+							return move;
+						break;
+					}
+					this.index=0;
+					this.stage=this.capturesOnly?Stage.DONE:Stage.KILLERS;
+					break;
+				case KILLERS:
+					if (this.killerMoves!=null && this.index<this.killerMoves.length)
+					{
+						final int killer=this.killerMoves[this.index++];
+						if (killer!=this.hashMove && isQuiet(killer) && !isRepeatedKiller(this.index-1) && this.board.isPseudoLegal(killer))
+							return killer;
+						break;
+					}
+					this.stage=Stage.GENERATE_QUIETS;
+					break;
+				case GENERATE_QUIETS:
+					this.moves.clear();
+					this.board.generateQuiets(this.moves);
+					if (this.moveOrdering!=null)
+						scoreQuiets();
+					this.index=0;
+					this.stage=Stage.QUIETS;
+					break;
+				case QUIETS:
+					if (this.index<this.moves.size())
+					{
+						if (this.moveOrdering!=null)
+							selectBest(this.index);
+						final int move=this.moves.get(this.index++);
+						if (move!=this.hashMove && !isKiller(move))
+							return move;
+						break;
+					}
+					this.stage=Stage.DONE;
+					break;
+				default:
+					return MoveEncoding.NULL_MOVE;
+			}
+		}
+	}
+
+	private void scoreCaptures()
+	{
+		if (this.scores.length<this.moves.size())
+			this.scores=new int[this.moves.size()];
+		for (int i=0;i<this.moves.size();i++)
+			this.scores[i]=MoveOrdering.captureScore(this.moves.get(i));
+	}
+
+	private void scoreQuiets() //Moves that caused the most cutoffs before go first
+	{
+		if (this.scores.length<this.moves.size())
+			this.scores=new int[this.moves.size()];
+		for (int i=0;i<this.moves.size();i++)
+			this.scores[i]=this.moveOrdering.getHistoryScore(this.board.getSideToMove(),this.moves.get(i));
+	}
+
+	private void selectBest(final int from) //One selection sort step, so captures after a cutoff are never sorted
+	{
+		int best=from;
+		for (int i=from+1;i<this.moves.size();i++)
+		{
+			if (this.scores[i]>this.scores[best])
+				best=i;
+		}
+		if (best!=from)
+		{
+			this.moves.swap(from,best);
+			final int score=this.scores[from];
+			this.scores[from]=this.scores[best];
+			this.scores[best]=score;
+		}
+	}
+
+	private boolean isKiller(final int move)
+	{
+		if (this.killerMoves==null)
+			return false;
+		for (final int killer:this.killerMoves)
+		{
+			if (killer==move)
+				return true;
+		}
+		return false;
+	}
+
+	private boolean isRepeatedKiller(final int slot) //Two killer slots can end up holding the same move
+	{
+		for (int i=0;i<slot;i++)
+		{
+			if (this.killerMoves[i]==this.killerMoves[slot])
+				return true;
+		}
+		return false;
+	}
+
+	private static boolean isQuiet(final int move) //Killers that became captures or promotions here were already tried with the captures
+	{
+		return !MoveEncoding.isCapture(move) && !MoveEncoding.isPromotion(move);
+	}
+}
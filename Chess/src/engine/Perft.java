@@ -0,0 +1,262 @@
+package engine;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import elements.*;
+
+public final class Perft //Counts the leaf nodes of the move tree to a fixed depth, the standard correctness and speed check for move generation
+{
+	private static final String STANDARD_FEN="rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+	private static final int MAX_DEPTH=64;
+	private static final int BOARD_CHECK_DEPTH=3; //The immutable Board path is far slower, so the reference check only takes it this deep
+
+	private static final String[] REFERENCE_FENS= //The usual perft test positions: the start, Kiwipete, a rook ending full of en passant and checks, and two promotion-heavy middlegames
+	{
+		STANDARD_FEN,
+		"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+		"8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+		"r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+		"rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8"
+	};
+	private static final long[][] REFERENCE_COUNTS= //Node counts by depth from 1. Pawns only promote to queens here, so the last two fall short of the published 6/264/9467 and 44/1486/62379
+	{
+		{20,400,8902,197281},
+		{48,2039,97862},
+		{14,191,2812,43238,674624},
+		{6,228,8087},
+		{41,1373,54007}
+	};
+
+	private final long[] hashKeys; //Optional subtree count cache: key XOR count in one slot, count in the other, so torn or racing writes just read as a miss
+	private final long[] hashCounts;
+	private final int hashMask;
+
+	public Perft()
+	{
+		this(0);
+	}
+
+	public Perft(final int hashSizeMb) //0 disables the hash table
+	{
+		if (hashSizeMb<=0)
+		{
+			this.hashKeys=null;
+			this.hashCounts=null;
+			this.hashMask=0;
+			return;
+		}
+		final int entries=Integer.highestOneBit((int)Math.min((long)hashSizeMb*1024*1024/16,1<<30));
+		this.hashKeys=new long[entries];
+		this.hashCounts=new long[entries];
+		this.hashMask=entries-1;
+	}
+
+	public long count(final Board board,final int depth) //Leaf nodes below the board, on the MutableBoard used by search
+	{
+		return count(new MutableBoard(board),depth,new IntMoveList[MAX_DEPTH]);
+	}
+
+	public Map<String,Long> divide(final Board board,final int depth) //Leaf nodes below each root move, for finding which move a wrong total comes from
+	{
+		final Map<String,Long> counts=new TreeMap<>();
+		final MutableBoard mutableBoard=new MutableBoard(board);
+		final IntMoveList rootMoves=new IntMoveList();
+		mutableBoard.generateMoves(rootMoves);
+		final IntMoveList[] moveLists=new IntMoveList[MAX_DEPTH];
+		for (int i=0;i<rootMoves.size();i++)
+		{
+			final int move=rootMoves.get(i);
+			if (mutableBoard.makeMove(move))
+			{
+				counts.put(MoveEncoding.toString(move),depth<=1?1L:count(mutableBoard,depth-1,moveLists));
+				mutableBoard.unmakeMove();
+			}
+		}
+		return counts;
+	}
+
+	public long parallelCount(final Board board,final int depth) //Splits the root moves across the common fork-join pool, each task on its own MutableBoard
+	{
+		if (depth<=1)
+			return count(board,depth);
+		final MutableBoard mutableBoard=new MutableBoard(board);
+		final IntMoveList rootMoves=new IntMoveList();
+		mutableBoard.generateMoves(rootMoves);
+
+		final List<RootMoveTask> tasks=new ArrayList<>();
+		for (int i=0;i<rootMoves.size();i++)
+		{
+			if (mutableBoard.makeMove(rootMoves.get(i)))
+			{
+				mutableBoard.unmakeMove();
+				tasks.add(new RootMoveTask(board,rootMoves.get(i),depth-1));
+			}
+		}
+		return ForkJoinPool.commonPool().invoke(new RecursiveTask<Long>()
+		{
+			@Override
+			protected Long compute()
+			{
+				long nodes=0;
+				for (final RecursiveTask<Long> task:invokeAll(tasks))
+					nodes+=task.join();
+				return nodes;
+			}
+		});
+	}
+
+	public static long countWithBoardMoves(final Board board,final int depth) //Walks Player.getLegalMoves and Move.execute instead of the MutableBoard, to check the GUI's move path
+	{
+		final Collection<Move> moves=board.currentPlayer().getLegalMoves();
+		if (depth<=1)
+			return depth==1?moves.size():1;
+		long nodes=0;
+		for (final Move move:moves)
+			nodes+=countWithBoardMoves(move.execute(),depth-1);
+		return nodes;
+	}
+
+	public static boolean checkReferenceCounts() //Counts every reference position on both move paths, printing each mismatch. True when all of them agree
+	{
+		final Perft perft=new Perft();
+		boolean passed=true;
+		for (int i=0;i<REFERENCE_FENS.length;i++)
+		{
+			final Board board=FenUtilities.createGameFromFEN(REFERENCE_FENS[i]);
+			for (int depth=1;depth<=REFERENCE_COUNTS[i].length;depth++)
+			{
+				final long expected=REFERENCE_COUNTS[i][depth-1];
+				final long nodes=perft.count(board,depth);
+				final long boardNodes=depth<=BOARD_CHECK_DEPTH?countWithBoardMoves(board,depth):expected;
+				if (nodes!=expected || boardNodes!=expected)
+				{
+					System.out.println("MISMATCH "+REFERENCE_FENS[i]+" depth "+depth+": expected "+expected+", got "+nodes+", board moves "+boardNodes);
+					passed=false;
+				}
+			}
+		}
+		return passed;
+	}
+
+	private long count(final MutableBoard board,final int depth,final IntMoveList[] moveLists)
+	{
+		if (depth==0)
+			return 1;
+		final long hashKey=board.zobristKey()^depth*0x9E3779B97F4A7C15L; //Counts at different depths must not share a slot
+		final int hashIndex=(int)hashKey&this.hashMask;
+		if (this.hashKeys!=null)
+		{
+			final long storedCount=this.hashCounts[hashIndex];
+			if ((this.hashKeys[hashIndex]^storedCount)==hashKey)
+				return storedCount;
+		}
+
+		IntMoveList moves=moveLists[depth];
+		if (moves==null)
+		{
+			moves=new IntMoveList();
+			moveLists[depth]=moves;
+		}
+		moves.clear();
+		board.generateMoves(moves);
+		long nodes=0;
+		for (int i=0;i<moves.size();i++)
+		{
+			if (board.makeMove(moves.get(i)))
+			{
+				nodes+=depth==1?1:count(board,depth-1,moveLists);
+				board.unmakeMove();
+			}
+		}
+
+		if (this.hashKeys!=null)
+		{
+			this.hashKeys[hashIndex]=hashKey^nodes;
+			this.hashCounts[hashIndex]=nodes;
+		}
+		return nodes;
+	}
+
+	private final class RootMoveTask extends RecursiveTask<Long>
+	{
+		private static final long serialVersionUID=1L;
+
+		private final Board board;
+		private final int move;
+		private final int depth;
+
+		RootMoveTask(final Board board,final int move,final int depth)
+		{
+			this.board=board;
+			this.move=move;
+			this.depth=depth;
+		}
+
+		@Override
+		protected Long compute()
+		{
+			final MutableBoard mutableBoard=new MutableBoard(this.board);
+			mutableBoard.makeMove(this.move);
+			return count(mutableBoard,this.depth,new IntMoveList[MAX_DEPTH]);
+		}
+	}
+
+	public static void main(final String[] args) //Usage: Perft [depth] [--fen "<fen>"] [--divide] [--parallel] [--hash <MB>] [--board], or Perft --check to test move generation against the reference counts
+	{
+		int depth=5;
+		String fen=STANDARD_FEN;
+		boolean divide=false;
+		boolean parallel=false;
+		boolean useBoardMoves=false;
+		boolean check=false;
+		int hashSizeMb=0;
+		for (int i=0;i<args.length;i++)
+		{
+			switch (args[i])
+			{
+				case "--fen": fen=args[++i]; break;
+				case "--divide": divide=true; break;
+				case "--parallel": parallel=true; break;
+				case "--board": useBoardMoves=true; break;
+				case "--hash": hashSizeMb=Integer.parseInt(args[++i]); break;
+				case "--check": check=true; break;
+				default: depth=Integer.parseInt(args[i]);
+			}
+		}
+
+		if (check)
+		{
+			final boolean passed=checkReferenceCounts();
+			System.out.println(passed?"All reference counts match":"Reference counts FAILED");
+			if (!passed)
+				System.exit(1);
+			return;
+		}
+
+		final Board board=FenUtilities.createGameFromFEN(fen);
+		final Perft perft=new Perft(hashSizeMb);
+		System.out.println(fen);
+		if (divide)
+		{
+			long total=0;
+			for (final Map.Entry<String,Long> entry:perft.divide(board,depth).entrySet())
+			{
+				System.out.println(entry.getKey()+": "+entry.getValue());
+				total+=entry.getValue();
+			}
+			System.out.println("Total: "+total);
+			return;
+		}
+
+		for (int currentDepth=1;currentDepth<=depth;currentDepth++)
+		{
+			final long startTime=System.nanoTime();
+			final long nodes=useBoardMoves?countWithBoardMoves(board,currentDepth):
+							 parallel?perft.parallelCount(board,currentDepth):perft.count(board,currentDepth);
+			final long elapsedNanos=Math.max(System.nanoTime()-startTime,1);
+			System.out.println(String.format("depth %d  nodes %d  time %d ms  nps %d",currentDepth,nodes,elapsedNanos/1000000,nodes*1000000000L/elapsedNanos));
+		}
+	}
+}
@@ -0,0 +1,107 @@
+package engine;
+
+import elements.Alliance;
+import elements.Board;
+import elements.MutableBoard;
+import elements.Piece.PieceType;
+
+public final class PositionEvaluator implements BoardEvaluator //Material plus piece-square tables straight from the bitboards, cheap enough to call at every leaf of a search
+{
+	private static final PieceType[] PIECE_TYPES=PieceType.values();
+
+	private static final int[][] PIECE_SQUARE_TABLES= //From white's side, tile 0 is a8. Black reads them mirrored
+	{
+		{ //Pawn
+			  0,  0,  0,  0,  0,  0,  0,  0,
+			 50, 50, 50, 50, 50, 50, 50, 50,
+			 10, 10, 20, 30, 30, 20, 10, 10,
+			  5,  5, 10, 25, 25, 10,  5,  5,
+			  0,  0,  0, 20, 20,  0,  0,  0,
+			  5, -5,-10,  0,  0,-10, -5,  5,
+			  5, 10, 10,-20,-20, 10, 10,  5,
+			  0,  0,  0,  0,  0,  0,  0,  0
+		},
+		{ //Knight
+			-50,-40,-30,-30,-30,-30,-40,-50,
+			-40,-20,  0,  0,  0,  0,-20,-40,
+			-30,  0, 10, 15, 15, 10,  0,-30,
+			-30,  5, 15, 20, 20, 15,  5,-30,
+			-30,  0, 15, 20, 20, 15,  0,-30,
+			-30,  5, 10, 15, 15, 10,  5,-30,
+			-40,-20,  0,  5,  5,  0,-20,-40,
+			-50,-40,-30,-30,-30,-30,-40,-50
+		},
+		{ //Bishop
+			-20,-10,-10,-10,-10,-10,-10,-20,
+			-10,  0,  0,  0,  0,  0,  0,-10,
+			-10,  0,  5, 10, 10,  5,  0,-10,
+			-10,  5,  5, 10, 10,  5,  5,-10,
+			-10,  0, 10, 10, 10, 10,  0,-10,
+			-10, 10, 10, 10, 10, 10, 10,-10,
+			-10,  5,  0,  0,  0,  0,  5,-10,
+			-20,-10,-10,-10,-10,-10,-10,-20
+		},
+		{ //Rook
+			  0,  0,  0,  0,  0,  0,  0,  0,
+			  5, 10, 10, 10, 10, 10, 10,  5,
+			 -5,  0,  0,  0,  0,  0,  0, -5,
+			 -5,  0,  0,  0,  0,  0,  0, -5,
+			 -5,  0,  0,  0,  0,  0,  0, -5,
+			 -5,  0,  0,  0,  0,  0,  0, -5,
+			 -5,  0,  0,  0,  0,  0,  0, -5,
+			  0,  0,  0,  5,  5,  0,  0,  0
+		},
+		{ //Queen
+			-20,-10,-10, -5, -5,-10,-10,-20,
+			-10,  0,  0,  0,  0,  0,  0,-10,
+			-10,  0,  5,  5,  5,  5,  0,-10,
+			 -5,  0,  5,  5,  5,  5,  0, -5,
+			  0,  0,  5,  5,  5,  5,  0, -5,
+			-10,  5,  5,  5,  5,  5,  0,-10,
+			-10,  0,  5,  0,  0,  0,  0,-10,
+			-20,-10,-10, -5, -5,-10,-10,-20
+		},
+		{ //King, tucked away behind its pawns
+			-30,-40,-40,-50,-50,-40,-40,-30,
+			-30,-40,-40,-50,-50,-40,-40,-30,
+			-30,-40,-40,-50,-50,-40,-40,-30,
+			-30,-40,-40,-50,-50,-40,-40,-30,
+			-20,-30,-30,-40,-40,-30,-30,-20,
+			-10,-20,-20,-20,-20,-20,-20,-10,
+			 20, 20,  0,  0,  0,  0, 20, 20,
+			 20, 30, 10,  0,  0, 10, 30, 20
+		}
+	};
+
+	@Override
+	public int evaluate(final Board board,final int depth) //White minus black, like StandardBoardEvaluator. Depth plays no part, mates are left to the search
+	{
+		int whiteScore=0;
+		for (final PieceType pieceType:PIECE_TYPES)
+			whiteScore+=scorePieces(pieceType,board.getPieceBitboard(Alliance.WHITE,pieceType),Alliance.WHITE)-
+						scorePieces(pieceType,board.getPieceBitboard(Alliance.BLACK,pieceType),Alliance.BLACK);
+		return whiteScore;
+	}
+
+	public int evaluate(final MutableBoard board) //Score for the side to move, in centipawns
+	{
+		int whiteScore=0;
+		for (final PieceType pieceType:PIECE_TYPES)
+			whiteScore+=scorePieces(pieceType,board.getPieceBitboard(Alliance.WHITE,pieceType),Alliance.WHITE)-
+						scorePieces(pieceType,board.getPieceBitboard(Alliance.BLACK,pieceType),Alliance.BLACK);
+		return board.getSideToMove().isWhite()?whiteScore:-whiteScore;
+	}
+
+	private static int scorePieces(final PieceType pieceType,long pieces,final Alliance alliance)
+	{
+		final int mirror=alliance.isWhite()?0:56; //Flips the row so black's tables read from its own side
+		final int[] table=PIECE_SQUARE_TABLES[pieceType.ordinal()];
+		int score=Long.bitCount(pieces)*(pieceType.isKing()?0:pieceType.getPieceValue()); //Both kings are always there, their value would only cancel out
+		while (pieces!=0)
+		{
+			score+=table[Long.numberOfTrailingZeros(pieces)^mirror];
+			pieces&=pieces-1;
+		}
+		return score;
+	}
+}
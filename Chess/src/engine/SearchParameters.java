@@ -0,0 +1,187 @@
+package engine;
+
+public final class SearchParameters //Settings for AlphaBeta's selective search: null-move pruning, late-move reductions and quiescence delta pruning. Build one with SearchParameters.Builder
+{
+	public static final SearchParameters DEFAULT=new Builder().build();
+
+	private final boolean nullMovePruning;
+	private final int nullMoveMinDepth;
+	private final int nullMoveReduction;
+	private final int nullMoveDepthDivisor;
+	private final int nullMoveVerificationDepth;
+	private final int nullMoveEvalMargin;
+	private final boolean lateMoveReductions;
+	private final int lateMoveMinDepth;
+	private final int lateMoveFullDepthMoves;
+	private final int lateMoveReduction;
+	private final int deltaMargin;
+
+	private SearchParameters(final Builder builder)
+	{
+		this.nullMovePruning=builder.nullMovePruning;
+		this.nullMoveMinDepth=builder.nullMoveMinDepth;
+		this.nullMoveReduction=builder.nullMoveReduction;
+		this.nullMoveDepthDivisor=builder.nullMoveDepthDivisor;
+		this.nullMoveVerificationDepth=builder.nullMoveVerificationDepth;
+		this.nullMoveEvalMargin=builder.nullMoveEvalMargin;
+		this.lateMoveReductions=builder.lateMoveReductions;
+		this.lateMoveMinDepth=builder.lateMoveMinDepth;
+		this.lateMoveFullDepthMoves=builder.lateMoveFullDepthMoves;
+		this.lateMoveReduction=builder.lateMoveReduction;
+		this.deltaMargin=builder.deltaMargin;
+	}
+
+	public boolean isNullMovePruning()
+	{
+		return this.nullMovePruning;
+	}
+
+	public int getNullMoveMinDepth()
+	{
+		return this.nullMoveMinDepth;
+	}
+
+	public int getNullMoveReduction(final int depth) //How much shallower the search after a pass is, growing with depth
+	{
+		return this.nullMoveReduction+depth/this.nullMoveDepthDivisor;
+	}
+
+	public int getNullMoveVerificationDepth() //From this depth a null-move cutoff is only taken once a reduced search without null moves agrees
+	{
+		return this.nullMoveVerificationDepth;
+	}
+
+	public int getNullMoveEvalMargin() //A pass is only tried when the static evaluation plus this reaches beta
+	{
+		return this.nullMoveEvalMargin;
+	}
+
+	public boolean isLateMoveReductions()
+	{
+		return this.lateMoveReductions;
+	}
+
+	public int getLateMoveMinDepth()
+	{
+		return this.lateMoveMinDepth;
+	}
+
+	public int getLateMoveFullDepthMoves()
+	{
+		return this.lateMoveFullDepthMoves;
+	}
+
+	public int getLateMoveReduction()
+	{
+		return this.lateMoveReduction;
+	}
+
+	public int getDeltaMargin() //Positional swing a capture may bring on top of the material, past which quiescence skips it
+	{
+		return this.deltaMargin;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "null move "+(this.nullMovePruning?"R="+this.nullMoveReduction+"+depth/"+this.nullMoveDepthDivisor+" from depth "+this.nullMoveMinDepth+" margin "+this.nullMoveEvalMargin:"off")+
+			   ", LMR "+(this.lateMoveReductions?"R="+this.lateMoveReduction+" after "+this.lateMoveFullDepthMoves+" moves from depth "+this.lateMoveMinDepth:"off")+
+			   ", delta margin "+this.deltaMargin;
+	}
+
+	public static class Builder
+	{
+		boolean nullMovePruning=true;
+		int nullMoveMinDepth=3;
+		int nullMoveReduction=2;
+		int nullMoveDepthDivisor=6;
+		int nullMoveVerificationDepth=8;
+		int nullMoveEvalMargin=0;
+		boolean lateMoveReductions=true;
+		int lateMoveMinDepth=3;
+		int lateMoveFullDepthMoves=4;
+		int lateMoveReduction=1;
+		int deltaMargin=200;
+
+		public Builder setNullMovePruning(final boolean nullMovePruning)
+		{
+			this.nullMovePruning=nullMovePruning;
+			return this;
+		}
+
+		public Builder setNullMoveMinDepth(final int nullMoveMinDepth)
+		{
+			this.nullMoveMinDepth=nullMoveMinDepth;
+			return this;
+		}
+
+		public Builder setNullMoveReduction(final int nullMoveReduction,final int depthDivisor) //R = nullMoveReduction + depth/depthDivisor
+		{
+			this.nullMoveReduction=nullMoveReduction;
+			this.nullMoveDepthDivisor=depthDivisor;
+			return this;
+		}
+
+		public Builder setNullMoveVerificationDepth(final int nullMoveVerificationDepth) //Integer.MAX_VALUE never verifies
+		{
+			this.nullMoveVerificationDepth=nullMoveVerificationDepth;
+			return this;
+		}
+
+		public Builder setNullMoveEvalMargin(final int nullMoveEvalMargin) //Centipawns, larger values try passing in more positions that look worse than beta
+		{
+			this.nullMoveEvalMargin=nullMoveEvalMargin;
+			return this;
+		}
+
+		public Builder setLateMoveReductions(final boolean lateMoveReductions)
+		{
+			this.lateMoveReductions=lateMoveReductions;
+			return this;
+		}
+
+		public Builder setLateMoveMinDepth(final int lateMoveMinDepth)
+		{
+			this.lateMoveMinDepth=lateMoveMinDepth;
+			return this;
+		}
+
+		public Builder setLateMoveFullDepthMoves(final int lateMoveFullDepthMoves) //How many moves at a node are searched to full depth before the rest are reduced
+		{
+			this.lateMoveFullDepthMoves=lateMoveFullDepthMoves;
+			return this;
+		}
+
+		public Builder setLateMoveReduction(final int lateMoveReduction)
+		{
+			this.lateMoveReduction=lateMoveReduction;
+			return this;
+		}
+
+		public Builder setDeltaMargin(final int deltaMargin)
+		{
+			this.deltaMargin=deltaMargin;
+			return this;
+		}
+
+		public SearchParameters build() //Throws IllegalArgumentException for settings that would divide by zero, turn a reduction into an extension or make a margin negative
+		{
+			requireAtLeast("null move min depth",this.nullMoveMinDepth,1);
+			requireAtLeast("null move reduction",this.nullMoveReduction,0);
+			requireAtLeast("null move depth divisor",this.nullMoveDepthDivisor,1);
+			requireAtLeast("null move verification depth",this.nullMoveVerificationDepth,1);
+			requireAtLeast("null move eval margin",this.nullMoveEvalMargin,0);
+			requireAtLeast("late move min depth",this.lateMoveMinDepth,3); //A reduction must leave at least one ply to search
+			requireAtLeast("late move full depth moves",this.lateMoveFullDepthMoves,0);
+			requireAtLeast("late move reduction",this.lateMoveReduction,0);
+			requireAtLeast("delta margin",this.deltaMargin,0);
+			return new SearchParameters(this);
+		}
+
+		private static void requireAtLeast(final String name,final int value,final int minimum)
+		{
+			if (value<minimum)
+				throw new IllegalArgumentException(name+" must be at least "+minimum+", got "+value);
+		}
+	}
+}
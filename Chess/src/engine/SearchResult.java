@@ -0,0 +1,66 @@
+package engine;
+
+import java.util.*;
+
+import elements.Move;
+
+public final class SearchResult //What a search settled on: the move, its score for the side to move and how much work it took
+{
+	private final Move move;
+	private final int score;
+	private final int depth;
+	private final long nodes;
+	private final long timeMillis;
+	private final List<SearchResult> iterations;
+
+	public SearchResult(final Move move,final int score,final int depth,final long nodes)
+	{
+		this(move,score,depth,nodes,0,Collections.emptyList());
+	}
+
+	public SearchResult(final Move move,final int score,final int depth,final long nodes,final long timeMillis,final List<SearchResult> iterations)
+	{
+		this.move=move;
+		this.score=score;
+		this.depth=depth;
+		this.nodes=nodes;
+		this.timeMillis=timeMillis;
+		this.iterations=Collections.unmodifiableList(new ArrayList<>(iterations));
+	}
+
+	public Move getMove()
+	{
+		return this.move;
+	}
+
+	public int getScore() //Centipawns from the point of view of the side to move, mates scored near AlphaBeta.MATE_SCORE
+	{
+		return this.score;
+	}
+
+	public int getDepth()
+	{
+		return this.depth;
+	}
+
+	public long getNodes()
+	{
+		return this.nodes;
+	}
+
+	public long getTimeMillis() //0 when the search did not time itself
+	{
+		return this.timeMillis;
+	}
+
+	public List<SearchResult> getIterations() //One result per completed depth of an iterative deepening search, shallowest first, empty otherwise
+	{
+		return this.iterations;
+	}
+
+	@Override
+	public String toString()
+	{
+		return this.move+" score "+this.score+" depth "+this.depth+" nodes "+this.nodes;
+	}
+}
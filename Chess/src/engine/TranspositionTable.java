@@ -0,0 +1,204 @@
+package engine;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.LongAdder;
+
+import elements.MoveEncoding;
+
+public final class TranspositionTable //Fixed-size off-heap cache of search results keyed by Zobrist key, safe to share between search threads without locks
+{
+	public static final int UPPER_BOUND=1; //Score is at most the stored value, every move failed low
+	public static final int LOWER_BOUND=2; //Score is at least the stored value, a move failed high
+	public static final int EXACT=3;
+
+	public static final long NO_ENTRY=0; //What probe returns on a miss. A stored entry always has a non-zero bound
+
+	//An entry is two longs: the key XOR the data, then the data. A torn write from a racing thread fails the XOR check and reads as a miss
+	//Data bits 0-21 move, 22-29 depth, 30-31 bound, 32-39 generation, 44-63 score (signed)
+	private static final int MOVE_MASK=0x3FFFFF;
+	private static final int DEPTH_SHIFT=22;
+	private static final int BOUND_SHIFT=30;
+	private static final int GENERATION_SHIFT=32;
+	private static final int SCORE_SHIFT=44;
+	private static final int BYTE_MASK=0xFF;
+
+	private static final int ENTRY_BYTES=16;
+	private static final int BUCKET_BYTES=64; //One cache line, so a probe touches a single line of memory
+	private static final int ENTRIES_PER_BUCKET=BUCKET_BYTES/ENTRY_BYTES;
+	private static final int MAX_SIZE_MB=1024; //A ByteBuffer is indexed by int
+
+	private final ByteBuffer table;
+	private final int bucketMask;
+	private volatile int generation;
+
+	private final LongAdder probes=new LongAdder();
+	private final LongAdder hits=new LongAdder();
+	private final LongAdder collisions=new LongAdder();
+
+	public TranspositionTable(final int sizeMb) //Rounded down to a power of two, between 1 and 1024 MB
+	{
+		final int bucketCount=Integer.highestOneBit(Math.min(Math.max(sizeMb,1),MAX_SIZE_MB)*(1024*1024/BUCKET_BYTES));
+		this.table=ByteBuffer.allocateDirect(bucketCount*BUCKET_BYTES+BUCKET_BYTES-1) //allocateDirect promises no alignment, the spare bytes let every bucket start on a line boundary
+							.alignedSlice(BUCKET_BYTES).order(ByteOrder.nativeOrder()); //A slice comes back big-endian whatever its parent's order
+		this.bucketMask=bucketCount-1;
+	}
+
+	public long probe(final long key) //The packed data stored for the position, or NO_ENTRY. Read it with getMove, getScore, getDepth and getBound
+	{
+		this.probes.increment();
+		final int bucket=bucketOffset(key);
+		for (int offset=bucket;offset<bucket+BUCKET_BYTES;offset+=ENTRY_BYTES)
+		{
+			final long data=this.table.getLong(offset+8);
+			if ((this.table.getLong(offset)^data)==key && data!=NO_ENTRY)
+			{
+				this.hits.increment();
+				return data;
+			}
+		}
+		return NO_ENTRY;
+	}
+
+	public void store(final long key,final int move,final int score,final int depth,final int bound) //Score as returned by scoreToTable. Keeps the old move when given MoveEncoding.NULL_MOVE for the same position
+	{
+		final int bucket=bucketOffset(key);
+		final int currentGeneration=this.generation;
+		int replaceOffset=bucket;
+		int lowestWorth=Integer.MAX_VALUE;
+		for (int offset=bucket;offset<bucket+BUCKET_BYTES;offset+=ENTRY_BYTES)
+		{
+			final long data=this.table.getLong(offset+8);
+			if (data==NO_ENTRY)
+			{
+				replaceOffset=offset;
+				lowestWorth=Integer.MIN_VALUE;
+				break;
+			}
+			if ((this.table.getLong(offset)^data)==key)
+			{
+				if (depth<getDepth(data)-2 && bound!=EXACT && getGeneration(data)==currentGeneration) //A much deeper result of this search is still worth more
+					return;
+				write(offset,key,move==MoveEncoding.NULL_MOVE?getMove(data):move,score,depth,bound,currentGeneration);
+				return;
+			}
+			final int age=(currentGeneration-getGeneration(data))&BYTE_MASK;
+			final int worth=getDepth(data)-8*age; //Entries from earlier searches go first, then the shallowest
+			if (worth<lowestWorth)
+			{
+				lowestWorth=worth;
+				replaceOffset=offset;
+			}
+		}
+		if (lowestWorth!=Integer.MIN_VALUE && getGeneration(this.table.getLong(replaceOffset+8))==currentGeneration)
+			this.collisions.increment(); //Evicting a different position stored by this same search
+		write(replaceOffset,key,move,score,depth,bound,currentGeneration);
+	}
+
+	private void write(final int offset,final long key,final int move,final int score,final int depth,final int bound,final int generation)
+	{
+		final long data=(move&MOVE_MASK)|(long)(Math.max(depth,0)&BYTE_MASK)<<DEPTH_SHIFT|(long)bound<<BOUND_SHIFT|
+						(long)generation<<GENERATION_SHIFT|(long)score<<SCORE_SHIFT;
+		this.table.putLong(offset,key^data);
+		this.table.putLong(offset+8,data);
+	}
+
+	private int bucketOffset(final long key)
+	{
+		return ((int)(key^(key>>>32))&this.bucketMask)*BUCKET_BYTES;
+	}
+
+	public void newSearch() //Ages every stored entry by one generation, so results of earlier moves are overwritten first
+	{
+		this.generation=(this.generation+1)&BYTE_MASK;
+	}
+
+	public void clear() //Forgets everything, e.g. for a new game. Not safe while a search is running
+	{
+		for (int offset=0;offset<this.table.capacity();offset+=8)
+			this.table.putLong(offset,0);
+		this.generation=0;
+		resetCounters();
+	}
+
+	public void resetCounters()
+	{
+		this.probes.reset();
+		this.hits.reset();
+		this.collisions.reset();
+	}
+
+	public long getProbes()
+	{
+		return this.probes.sum();
+	}
+
+	public long getHits()
+	{
+		return this.hits.sum();
+	}
+
+	public long getCollisions() //Stores that evicted another position's entry from the current search
+	{
+		return this.collisions.sum();
+	}
+
+	public int getSizeMb()
+	{
+		return this.table.capacity()/(1024*1024);
+	}
+
+	public int getEntryCount()
+	{
+		return (this.bucketMask+1)*ENTRIES_PER_BUCKET;
+	}
+
+	public static int scoreToTable(final int score,final int ply) //Mate scores count plies from the root, the table stores them from the position itself
+	{
+		if (score>=AlphaBeta.MATE_SCORE-AlphaBeta.MAX_PLY)
+			return score+ply;
+		if (score<=-AlphaBeta.MATE_SCORE+AlphaBeta.MAX_PLY)
+			return score-ply;
+		return score;
+	}
+
+	public static int scoreFromTable(final int score,final int ply)
+	{
+		if (score>=AlphaBeta.MATE_SCORE-AlphaBeta.MAX_PLY)
+			return score-ply;
+		if (score<=-AlphaBeta.MATE_SCORE+AlphaBeta.MAX_PLY)
+			return score+ply;
+		return score;
+	}
+
+	public static int getMove(final long entry)
+	{
+		return (int)entry&MOVE_MASK;
+	}
+
+	public static int getDepth(final long entry)
+	{
+		return (int)(entry>>>DEPTH_SHIFT)&BYTE_MASK;
+	}
+
+	public static int getBound(final long entry)
+	{
+		return (int)(entry>>>BOUND_SHIFT)&0x3;
+	}
+
+	public static int getScore(final long entry)
+	{
+		return (int)(entry>>SCORE_SHIFT);
+	}
+
+	private static int getGeneration(final long entry)
+	{
+		return (int)(entry>>>GENERATION_SHIFT)&BYTE_MASK;
+	}
+
+	@Override
+	public String toString()
+	{
+		return getSizeMb()+" MB, "+getProbes()+" probes, "+getHits()+" hits, "+getCollisions()+" collisions";
+	}
+}
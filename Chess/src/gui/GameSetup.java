@@ -16,6 +16,10 @@ class GameSetup extends JDialog {
     private PlayerType whitePlayerType;
     private PlayerType blackPlayerType;
     private JSpinner searchDepthSpinner;
+    private JSpinner searchThreadsSpinner;
+    private JSpinner baseTimeSpinner;
+    private JSpinner incrementSpinner;
+    private JSpinner movesToGoSpinner;
 
     private static final String HUMAN_TEXT = "Human";
     private static final String COMPUTER_TEXT = "Computer";
@@ -49,6 +53,12 @@ class GameSetup extends JDialog {
 
         myPanel.add(new JLabel("Search"));
         this.searchDepthSpinner = addLabeledSpinner(myPanel, "Search Depth", new SpinnerNumberModel(6, 0, Integer.MAX_VALUE, 1));
+        final int processors = Runtime.getRuntime().availableProcessors();
+        this.searchThreadsSpinner = addLabeledSpinner(myPanel, "Search Threads", new SpinnerNumberModel(Math.min(processors, 4), 1, processors, 1));
+        myPanel.add(new JLabel("Clock"));
+        this.baseTimeSpinner = addLabeledSpinner(myPanel, "Base Time (s)", new SpinnerNumberModel(300, 1, Integer.MAX_VALUE, 10));
+        this.incrementSpinner = addLabeledSpinner(myPanel, "Increment (s)", new SpinnerNumberModel(2, 0, Integer.MAX_VALUE, 1));
+        this.movesToGoSpinner = addLabeledSpinner(myPanel, "Moves Per Control (0 = whole game)", new SpinnerNumberModel(0, 0, Integer.MAX_VALUE, 1));
 
         final JButton cancelButton = new JButton("Cancel");
         final JButton okButton = new JButton("OK");
@@ -110,4 +120,20 @@ class GameSetup extends JDialog {
     int getSearchDepth() {
         return (Integer)this.searchDepthSpinner.getValue();
     }
+
+    int getSearchThreads() {
+        return (Integer)this.searchThreadsSpinner.getValue();
+    }
+
+    long getBaseTimeMillis() {
+        return (Integer)this.baseTimeSpinner.getValue() * 1000L;
+    }
+
+    long getIncrementMillis() {
+        return (Integer)this.incrementSpinner.getValue() * 1000L;
+    }
+
+    int getMovesPerControl() {
+        return (Integer)this.movesToGoSpinner.getValue();
+    }
 }
\ No newline at end of file
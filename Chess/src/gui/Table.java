@@ -16,8 +16,10 @@ import javax.swing.SwingUtilities;
 
 import elements.*;
 import elements.Move.MoveFactory;
-import engine.MiniMax;
+import engine.GameClock;
+import engine.IterativeDeepening;
 import engine.MoveStrategy;
+import engine.TranspositionTable;
 import players.MoveTransition;
 import com.google.common.*;
 import com.google.common.collect.Lists;
@@ -31,6 +33,9 @@ public class Table extends Observable
 	private final BoardPanel boardPanel;
 	private final MoveLog moveLog;
 	private final GameSetup gameSetup;
+	private GameClock gameClock;
+	private long turnStartMillis; //When the side to move was handed the board, its thinking time is charged from here
+	private final TranspositionTable transpositionTable;
 	private Board chessBoard;
 	
 	private Tile sourceTile;
@@ -39,6 +44,7 @@ public class Table extends Observable
 	private BoardDirection boardDirection;
 	
 	private Move computerMove;
+	private AIThinkTank thinkTank; //The search in progress, if any
 	
 	private boolean highlightLegalMoves;
 	
@@ -66,6 +72,9 @@ public class Table extends Observable
 		this.moveLog=new MoveLog();
 		this.addObserver(new TableGameAIWatcher());
 		this.gameSetup=new GameSetup(this.gameFrame,true);
+		this.gameClock=createGameClock(this.gameSetup);
+		this.turnStartMillis=System.currentTimeMillis();
+		this.transpositionTable=new TranspositionTable(64);
 		this.gameFrame.add(this.takenPiecesPanel,BorderLayout.WEST);
 		this.gameFrame.add(this.boardPanel,BorderLayout.CENTER);
 		this.gameFrame.add(this.gameHistoryPanel,BorderLayout.EAST);
@@ -92,6 +101,32 @@ public class Table extends Observable
 		return this.gameSetup;
 	}
 	
+	public GameClock getGameClock()
+	{
+		return this.gameClock;
+	}
+	
+	private static GameClock createGameClock(final GameSetup gameSetup)
+	{
+		return new GameClock(gameSetup.getBaseTimeMillis(),gameSetup.getIncrementMillis(),gameSetup.getMovesPerControl());
+	}
+	
+	private void startTurn()
+	{
+		this.turnStartMillis=System.currentTimeMillis();
+	}
+	
+	private void punchHumanMove(final Alliance alliance) //The engine charges its own moves as it searches, a human is charged the time since their turn began
+	{
+		this.gameClock.punch(alliance,System.currentTimeMillis()-this.turnStartMillis);
+		startTurn();
+	}
+	
+	public TranspositionTable getTranspositionTable() //Kept for the whole game so the AI reuses its earlier searches
+	{
+		return this.transpositionTable;
+	}
+	
 	public Board getGameBoard()
 	{
 		return this.chessBoard;
@@ -182,6 +217,9 @@ public class Table extends Observable
 			public void actionPerformed(ActionEvent e) 
 			{
 				Table.get().getGameSetup().promptUser();
+				Table.get().cancelThinkTank(); //Its move and its punch belong to the old setup
+				Table.get().gameClock=createGameClock(Table.get().getGameSetup()); //A new setup starts the clocks afresh
+				Table.get().startTurn();
 				Table.get().setupUpdate(Table.get().getGameSetup());
 			}
 		});
@@ -190,6 +228,13 @@ public class Table extends Observable
 		return optionsMenu;
 	}
 	
+	private void cancelThinkTank() //The search runs on until its time is up, but done() drops the move it finds
+	{
+		if (this.thinkTank!=null)
+			this.thinkTank.cancel(false);
+		this.thinkTank=null;
+	}
+	
 	public void setupUpdate(final GameSetup gameSetup)
 	{
 		setChanged();
@@ -203,14 +248,13 @@ public class Table extends Observable
 		public void update(Observable o,final Object arg) 
 		{
 			if (Table.get().getGameSetup().isAIPlayer(Table.get().getGameBoard().currentPlayer()) &&
-				!Table.get().getGameBoard().currentPlayer().isInCheckmate() &&
-				!Table.get().getGameBoard().currentPlayer().isInStalemate()
+				!Table.get().getGameBoard().currentPlayer().getGameStatus().isGameOver()
 				)
 			{
 				//Create Ai thread
 				//Execute AI
-				final AIThinkTank thinkTank=new AIThinkTank();
-				thinkTank.execute();
+				Table.get().thinkTank=new AIThinkTank();
+				Table.get().thinkTank.execute();
 			}
 			
 			if(Table.get().getGameBoard().currentPlayer().isInCheckmate())
@@ -271,9 +315,10 @@ public class Table extends Observable
 		@Override
 		protected Move doInBackground() throws Exception 
 		{
-			final MoveStrategy minimax=new MiniMax(4);
+			final GameSetup gameSetup=Table.get().getGameSetup();
+			final MoveStrategy iterativeDeepening=new IterativeDeepening(gameSetup.getSearchDepth(),Table.get().getGameClock(),Table.get().getTranspositionTable(),gameSetup.getSearchThreads());
 			
-			final Move bestMove=minimax.execute(Table.get().getGameBoard());
+			final Move bestMove=iterativeDeepening.execute(Table.get().getGameBoard());
 			
 			return bestMove;
 		}
@@ -281,10 +326,13 @@ public class Table extends Observable
 		@Override
 		public void done()
 		{
+			if (isCancelled())
+				return;
 			try{
                 final Move bestMove = get();
                 Table.get().updateComputerMove(bestMove);
                 Table.get().updateGameBoard(Table.get().getGameBoard().currentPlayer().makeMove(bestMove).getTransitionBoard());
+                Table.get().startTurn();
                 Table.get().getMoveLog().addMove(bestMove);
                 Table.get().getGameHistoryPanel().redo(Table.get().getGameBoard(), Table.get().getMoveLog());
                 Table.get().getTakenPiecesPanel().redo(Table.get().getMoveLog());
@@ -450,6 +498,7 @@ public class Table extends Observable
 			    			final MoveTransition transition=chessBoard.currentPlayer().makeMove(move);
 			    			if (transition.getMoveStatus().isDone())
 			    			{
+			    				punchHumanMove(chessBoard.currentPlayer().getAlliance());
 			    				chessBoard=transition.getTransitionBoard();
 			    				moveLog.addMove(move);
 			    			}
@@ -556,7 +605,13 @@ public class Table extends Observable
 		{
 			if (humanMovedPiece!=null && humanMovedPiece.getPieceAlliance()==board.currentPlayer().getAlliance())
 			{
-				return humanMovedPiece.calculateLegalMoves(board);
+				final List<Move> pieceMoves=new ArrayList<>(); //Filtering the player's legal moves so pinned pieces and check evasions highlight correctly
+				for (final Move move:board.currentPlayer().getLegalMoves())
+				{
+					if (move.getMovedPiece().equals(humanMovedPiece))
+						pieceMoves.add(move);
+				}
+				return pieceMoves;
 			}
 			return Collections.emptyList();
 		}
@@ -7,16 +7,16 @@ import java.util.List;
 
 import elements.Alliance;
 import elements.Board;
+import elements.BoardUtils;
 import elements.Move;
 import elements.Piece;
 import elements.Rook;
-import elements.Tile;
 
 public class BlackPlayer extends Player{
 
-	public BlackPlayer(final Board board,final Collection<Move> whiteStandardLegalMoves,final Collection<Move> blackStandardLegalMoves) //Constructor for a player with black pieces
+	public BlackPlayer(final Board board) //Constructor for a player with black pieces, moves are worked out lazily by Player
 	{
-		super(board,blackStandardLegalMoves,whiteStandardLegalMoves);
+		super(board);
 	}
 
 	@Override
@@ -38,33 +38,23 @@ public class BlackPlayer extends Player{
 	}
 
 	@Override
-	protected Collection<Move> calculateKingCastles(final Collection<Move> playerLegals,final Collection<Move> opponentLegals) //Method to calculate legal castling moves
+	protected Collection<Move> calculateKingCastles() //Method to calculate legal castling moves, the castling rights already guarantee an unmoved king and rook
 	{
 		final List<Move> kingCastles=new ArrayList<>();
+		final int castlingRights=this.board.getCastlingRights();
 		
-		if (this.playerKing.isFirstMove()&&!this.isInCheck()) 
+		if ((castlingRights&(BoardUtils.BLACK_KING_SIDE_CASTLE|BoardUtils.BLACK_QUEEN_SIDE_CASTLE))!=0 && !this.isInCheck()) 
 		{
-			if (!this.board.getTile(5).isTileOccupied() && !this.board.getTile(6).isTileOccupied()) //Black king side Castle
+			if ((castlingRights&BoardUtils.BLACK_KING_SIDE_CASTLE)!=0 && !this.board.isTileOccupied(5) && !this.board.isTileOccupied(6) && //Black king side Castle
+				!this.board.isSquareAttacked(5,Alliance.WHITE) && !this.board.isSquareAttacked(6,Alliance.WHITE))
 			{
-				final Tile rookTile=this.board.getTile(7);
-				if (rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove())
-				{
-					if (Player.calculateAttacksOnTile(5, opponentLegals).isEmpty() && 
-						Player.calculateAttacksOnTile(6, opponentLegals).isEmpty())
-						kingCastles.add(new Move.KingSideCastleMove(this.board, this.playerKing, 6, (Rook)rookTile.getPiece(), rookTile.getTileCoord(), 5));
-				}
+				kingCastles.add(new Move.KingSideCastleMove(this.board, this.playerKing, 6, (Rook)this.board.getPiece(7), 7, 5));
 			}
 			
-			if (!this.board.getTile(1).isTileOccupied() && !this.board.getTile(2).isTileOccupied() && !this.board.getTile(3).isTileOccupied()) //Black queen side Castle
+			if ((castlingRights&BoardUtils.BLACK_QUEEN_SIDE_CASTLE)!=0 && !this.board.isTileOccupied(1) && !this.board.isTileOccupied(2) && !this.board.isTileOccupied(3) && //Black queen side Castle
+				!this.board.isSquareAttacked(2,Alliance.WHITE) && !this.board.isSquareAttacked(3,Alliance.WHITE))
 			{
-				final Tile rookTile=this.board.getTile(0);
-				if (rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove() &&
-						Player.calculateAttacksOnTile(2, opponentLegals).isEmpty() && 
-						Player.calculateAttacksOnTile(3, opponentLegals).isEmpty() &&
-						rookTile.getPiece().getPieceType().isRook())
-				{
-					kingCastles.add(new Move.QueenSideCastleMove(this.board, this.playerKing, 2, (Rook)rookTile.getPiece(), rookTile.getTileCoord(), 3));
-				}
+				kingCastles.add(new Move.QueenSideCastleMove(this.board, this.playerKing, 2, (Rook)this.board.getPiece(0), 0, 3));
 			}
 		}
 		
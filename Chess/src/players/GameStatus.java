@@ -0,0 +1,39 @@
+package players;
+
+public enum GameStatus //Where the game stands for one player, worked out once per Board by Player.getGameStatus
+{
+	IN_PROGRESS
+	{
+		@Override
+		public boolean isGameOver()
+		{
+			return false;
+		}
+	},
+	CHECK
+	{
+		@Override
+		public boolean isGameOver()
+		{
+			return false;
+		}
+	},
+	CHECKMATE
+	{
+		@Override
+		public boolean isGameOver()
+		{
+			return true;
+		}
+	},
+	STALEMATE
+	{
+		@Override
+		public boolean isGameOver()
+		{
+			return true;
+		}
+	};
+	
+	public abstract boolean isGameOver();
+}
@@ -0,0 +1,50 @@
+package players;
+
+import java.util.*;
+
+import elements.Move;
+
+final class LegalMoveIndex //Open addressing table of a player's legal moves keyed by current and destination tile, which identify a move since pawns always promote to a queen
+{
+	private final int[] keys;
+	private final Move[] moves;
+	private final int mask;
+
+	LegalMoveIndex(final Collection<Move> legalMoves)
+	{
+		final int capacity=Integer.highestOneBit(Math.max(legalMoves.size(),1)*2-1)<<1; //At most half full, so probe runs stay short
+		this.keys=new int[capacity];
+		this.moves=new Move[capacity];
+		this.mask=capacity-1;
+		for (final Move move:legalMoves)
+		{
+			final int key=createKey(move.getCurrentCoord(),move.getDestinationCoord());
+			int slot=slotOf(key);
+			while (this.moves[slot]!=null)
+				slot=(slot+1)&this.mask;
+			this.keys[slot]=key;
+			this.moves[slot]=move;
+		}
+	}
+
+	Move get(final int currentCoord,final int destinationCoord) //The legal move between the two tiles, or null
+	{
+		final int key=createKey(currentCoord,destinationCoord);
+		for (int slot=slotOf(key);this.moves[slot]!=null;slot=(slot+1)&this.mask)
+		{
+			if (this.keys[slot]==key)
+				return this.moves[slot];
+		}
+		return null;
+	}
+
+	private int slotOf(final int key)
+	{
+		return (key*0x9E3779B1>>>16)&this.mask;
+	}
+
+	private static int createKey(final int currentCoord,final int destinationCoord)
+	{
+		return currentCoord<<6|destinationCoord;
+	}
+}
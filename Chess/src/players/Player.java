@@ -9,15 +9,15 @@ public abstract class Player
 {
 	protected final Board board;
 	protected final King playerKing;
-	protected final Collection<Move> legalMoves;
-	private final boolean isInCheck;
+	private volatile Collection<Move> legalMoves; //Legal moves and check status are only worked out when first asked for, then cached
+	private volatile Boolean isInCheck;
+	private volatile GameStatus gameStatus;
+	private volatile LegalMoveIndex legalMoveIndex;
 	
-	Player(final Board board,final Collection<Move> legalMoves,final Collection<Move>opponentMoves) //Constructor for Player
+	Player(final Board board) //Constructor for Player
 	{
 		this.board=board;
 		this.playerKing=establishKing();
-		this.legalMoves=Stream.concat(legalMoves.stream(), calculateKingCastles(legalMoves,opponentMoves).stream()).collect(Collectors.toList());; 
-		this.isInCheck=!Player.calculateAttacksOnTile(this.playerKing.getPiecePosition(),opponentMoves).isEmpty(); //Checks whether king is in check by using method below
 	}
 	
 	public King getPlayerKing()
@@ -27,20 +27,16 @@ public abstract class Player
 	
 	public Collection<Move> getLegalMoves()
 	{
-		return this.legalMoves;
-	}
-	
-	public static Collection<Move> calculateAttacksOnTile(int piecePosition, Collection<Move> opponentMoves) //Method that checks all tiles under attack by opponent pieces
-	{
-		final List<Move> attackMoves=new ArrayList<>();
-		for (final Move move:attackMoves)
+		Collection<Move> moves=this.legalMoves;
+		if (moves==null)
 		{
-			if (piecePosition==move.getDestinationCoord())
-				attackMoves.add(move);
+			final Collection<Move> standardMoves=this.board.getStandardLegalMoves(getAlliance());
+			moves=Collections.unmodifiableList(Stream.concat(standardMoves.stream(),calculateKingCastles().stream()).collect(Collectors.toList()));
+			this.legalMoves=moves;
 		}
-		return Collections.unmodifiableList(attackMoves); 
+		return moves;
 	}
-
+	
 	private King establishKing()   //Method to establish the King and make sure the player has a king
 	{
 		for(final Piece piece : getActivePieces()){
@@ -52,24 +48,58 @@ public abstract class Player
         throw new RuntimeException("Should not reach here! Not a valid board");
 	}
 	
+	public Move getLegalMove(final int currentCoord,final int destinationCoord) //Hashed lookup of the legal move between two tiles, or null if there is none
+	{
+		LegalMoveIndex index=this.legalMoveIndex;
+		if (index==null)
+		{
+			index=new LegalMoveIndex(getLegalMoves());
+			this.legalMoveIndex=index;
+		}
+		return index.get(currentCoord,destinationCoord);
+	}
+	
 	public boolean isMoveLegal (final Move move)
 	{
-		return this.legalMoves.contains(move);
+		if (move==null || move.getMovedPiece()==null) //The null move has no tiles to look up
+			return false;
+		final Move legalMove=getLegalMove(move.getCurrentCoord(),move.getDestinationCoord());
+		return legalMove!=null && (legalMove==move || legalMove.equals(move));
 	}
 	
-	public boolean isInCheck()
+	public boolean isInCheck() //Checks whether the opponent attacks the king's tile
 	{
-		return this.isInCheck;
+		Boolean inCheck=this.isInCheck;
+		if (inCheck==null)
+		{
+			inCheck=this.board.isSquareAttacked(this.playerKing.getPiecePosition(),getOpponentAlliance());
+			this.isInCheck=inCheck;
+		}
+		return inCheck;
+	}
+	
+	public GameStatus getGameStatus() //Check, checkmate and stalemate worked out once and cached, the GUI, search and evaluator all ask repeatedly
+	{
+		GameStatus status=this.gameStatus;
+		if (status==null)
+		{
+			if (isInCheck())
+				status=hasEscapeMoves()?GameStatus.CHECK:GameStatus.CHECKMATE;
+			else
+				status=hasEscapeMoves()?GameStatus.IN_PROGRESS:GameStatus.STALEMATE;
+			this.gameStatus=status;
+		}
+		return status;
 	}
 	
 	public boolean isInCheckmate()
 	{
-		return this.isInCheck && !hasEscapeMoves();
+		return getGameStatus()==GameStatus.CHECKMATE;
 	}
 	
 	public boolean isInStalemate()
 	{
-		return !this.isInCheck && !hasEscapeMoves();
+		return getGameStatus()==GameStatus.STALEMATE;
 	}
 	
 	public boolean isCastled()
@@ -77,15 +107,9 @@ public abstract class Player
 		return false;
 	}
 	
-	protected boolean hasEscapeMoves() //Checking whether a king has escape moves by testing moves and checking whether that move was done successfully
+	protected boolean hasEscapeMoves() //Stops at the first legal piece move. Castles can be ignored, a king that may castle can always step to the tile it passes through
 	{
-		for (final Move move:this.legalMoves)
-		{
-			final MoveTransition transition=makeMove(move);
-			if (transition.getMoveStatus().isDone())
-				return true;
-		}
-		return false;
+		return this.board.hasStandardLegalMoves(getAlliance());
 	}
 	
 	
@@ -94,21 +118,17 @@ public abstract class Player
 		if (!isMoveLegal(move))       //Returning the same board and a status of illegal move
 			return new MoveTransition(this.board,move,MoveStatus.ILLEGAL_MOVE);
 		
-		final Board transitionBoard=move.execute();  //execute move if it is legal
-		
-		
-		final Collection<Move> kingAttacks=Player.calculateAttacksOnTile(transitionBoard.currentPlayer().getOpponent().getPlayerKing().getPiecePosition(), 
-										   transitionBoard.currentPlayer().getLegalMoves());  //Calculating whether there is an attack on the king of the player who just made the move
-		
-		if (!kingAttacks.isEmpty())  //Returns the same board and a status of leaving player in check
-			return new MoveTransition(this.board,move,MoveStatus.LEAVES_PLAYER_IN_CHECK);
-		
-		return new MoveTransition(transitionBoard,move,MoveStatus.DONE);  //If it passed all prior cases, return a new move transition with the new board and status of done
+		return new MoveTransition(move.execute(),move,MoveStatus.DONE);  //Moves that would leave the king in check are never generated, so a legal move can be played straight away
 	}
 	
 	public abstract Collection<Piece> getActivePieces();
 	public abstract Alliance getAlliance();
+	
+	protected Alliance getOpponentAlliance()
+	{
+		return getAlliance().isWhite()?Alliance.BLACK:Alliance.WHITE;
+	}
 	public abstract Player getOpponent();
 	
-	protected abstract Collection<Move> calculateKingCastles(Collection<Move> playerLegals, Collection<Move> opponentLegals);
+	protected abstract Collection<Move> calculateKingCastles();
 }
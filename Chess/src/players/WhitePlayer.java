@@ -4,16 +4,16 @@ import java.util.*;
 
 import elements.Alliance;
 import elements.Board;
+import elements.BoardUtils;
 import elements.Move;
 import elements.Piece;
 import elements.Rook;
-import elements.Tile;
 
 public class WhitePlayer extends Player{
 
-	public WhitePlayer(final Board board,final Collection<Move> whiteStandardLegalMoves,final Collection<Move> blackStandardLegalMoves) //Constructor for a player with white pieces
+	public WhitePlayer(final Board board) //Constructor for a player with white pieces, moves are worked out lazily by Player
 	{
-		super(board,whiteStandardLegalMoves,blackStandardLegalMoves);
+		super(board);
 	}
 
 	@Override
@@ -35,34 +35,23 @@ public class WhitePlayer extends Player{
 	}
 
 	@Override
-	protected Collection<Move> calculateKingCastles(final Collection<Move> playerLegals,final Collection<Move> opponentLegals) //Method to calculate legal castling moves
+	protected Collection<Move> calculateKingCastles() //Method to calculate legal castling moves, the castling rights already guarantee an unmoved king and rook
 	{
 		final List<Move> kingCastles=new ArrayList<>();
+		final int castlingRights=this.board.getCastlingRights();
 		
-		if (this.playerKing.isFirstMove()&&!this.isInCheck()) 
+		if ((castlingRights&(BoardUtils.WHITE_KING_SIDE_CASTLE|BoardUtils.WHITE_QUEEN_SIDE_CASTLE))!=0 && !this.isInCheck()) 
 		{
-			if (!this.board.getTile(61).isTileOccupied() && !this.board.getTile(62).isTileOccupied()) //White king side Castle
+			if ((castlingRights&BoardUtils.WHITE_KING_SIDE_CASTLE)!=0 && !this.board.isTileOccupied(61) && !this.board.isTileOccupied(62) && //White king side Castle
+				!this.board.isSquareAttacked(61,Alliance.BLACK) && !this.board.isSquareAttacked(62,Alliance.BLACK))
 			{
-				final Tile rookTile=this.board.getTile(63);
-				if (rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove())
-				{
-					if (Player.calculateAttacksOnTile(61, opponentLegals).isEmpty() && 
-						Player.calculateAttacksOnTile(62, opponentLegals).isEmpty() &&
-						rookTile.getPiece().getPieceType().isRook())
-						kingCastles.add(new Move.KingSideCastleMove(this.board, this.playerKing, 62, (Rook)rookTile.getPiece(), rookTile.getTileCoord(), 61));
-				}
+				kingCastles.add(new Move.KingSideCastleMove(this.board, this.playerKing, 62, (Rook)this.board.getPiece(63), 63, 61));
 			}
 			
-			if (!this.board.getTile(59).isTileOccupied() && !this.board.getTile(58).isTileOccupied() && !this.board.getTile(57).isTileOccupied()) //Black queen side Castle
+			if ((castlingRights&BoardUtils.WHITE_QUEEN_SIDE_CASTLE)!=0 && !this.board.isTileOccupied(59) && !this.board.isTileOccupied(58) && !this.board.isTileOccupied(57) && //White queen side Castle
+				!this.board.isSquareAttacked(58,Alliance.BLACK) && !this.board.isSquareAttacked(59,Alliance.BLACK))
 			{
-				final Tile rookTile=this.board.getTile(56);
-				if (rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove() &&
-						Player.calculateAttacksOnTile(58, opponentLegals).isEmpty() && 
-						Player.calculateAttacksOnTile(59, opponentLegals).isEmpty() &&
-						rookTile.getPiece().getPieceType().isRook())
-				{
-					kingCastles.add(new Move.QueenSideCastleMove(this.board, this.playerKing, 58, (Rook)rookTile.getPiece(), rookTile.getTileCoord(), 59));
-				}
+				kingCastles.add(new Move.QueenSideCastleMove(this.board, this.playerKing, 58, (Rook)this.board.getPiece(56), 56, 59));
 			}
 		}
 		